@@ -0,0 +1,23 @@
+package net.samsung.examples;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler. Usage: {@code java -jar target/benchmarks.jar [regexp]}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "net\\.samsung\\.examples\\..*Benchmark.*")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
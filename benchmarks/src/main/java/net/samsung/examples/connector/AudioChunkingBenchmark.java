@@ -0,0 +1,76 @@
+package net.samsung.examples.connector;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning audio into TranscribeStreamRequest chunks: whole files through {@link AudioFileReader}
+ * and single microphone buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AudioChunkingBenchmark {
+
+    private static final int FILE_SIZE = 32 * 1024 * 1024;
+
+    @Param({"8000", "65536", "5242880"})
+    public int chunkSize;
+
+    private File file;
+    private byte[] micBuffer;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] audio = new byte[FILE_SIZE];
+        new Random(42).nextBytes(audio);
+        file = File.createTempFile("soniox-bench", ".pcm");
+        file.deleteOnExit();
+        Files.write(file.toPath(), audio);
+
+        micBuffer = new byte[chunkSize];
+        new Random(7).nextBytes(micBuffer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long fileCopied(Blackhole blackhole) throws IOException {
+        return AudioFileReader.readChunks(file.getPath(), chunkSize, false, chunk -> blackhole.consume(request(chunk)));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long fileMapped(Blackhole blackhole) throws IOException {
+        return AudioFileReader.readChunks(file.getPath(), chunkSize, true, chunk -> blackhole.consume(request(chunk)));
+    }
+
+    @Benchmark
+    public SpeechServiceOuterClass.TranscribeStreamRequest micCopied() {
+        return request(ByteString.copyFrom(micBuffer, 0, chunkSize));
+    }
+
+    @Benchmark
+    public SpeechServiceOuterClass.TranscribeStreamRequest micWrapped() {
+        return request(UnsafeByteOperations.unsafeWrap(micBuffer, 0, chunkSize));
+    }
+
+    private static SpeechServiceOuterClass.TranscribeStreamRequest request(ByteString audio) {
+        return SpeechServiceOuterClass.TranscribeStreamRequest.newBuilder().setAudio(audio).build();
+    }
+}
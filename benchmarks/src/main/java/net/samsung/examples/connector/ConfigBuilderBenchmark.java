@@ -0,0 +1,57 @@
+package net.samsung.examples.connector;
+
+import org.openjdk.jmh.annotations.*;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TranscriptionConfig construction including boost word parsing, and the cached template lookup that replaces it per session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConfigBuilderBenchmark {
+
+    @Param({"0", "10", "1000"})
+    public int boostWordCount;
+
+    private String boostWords;
+    private String[] splitBoostWords;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() {
+        boostWords = SyntheticResults.boostWords(boostWordCount);
+        splitBoostWords = boostWords.split(",");
+
+        // 이전 버전과 비교할 때 boost word 출력이 console 에 쓰이지 않도록 한다
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public SpeechServiceOuterClass.TranscriptionConfig configBuilder() {
+        return SonioxASRConnector.getConfigBuilder("ko", false, "pcm_s16le", 16000, 1, true, false, 0, 0, boostWords, 10, true).build();
+    }
+
+    @Benchmark
+    public SpeechServiceOuterClass.SpeechContext speechContexts() {
+        return SonioxASRConnector.getSpeechContexts(splitBoostWords, 10);
+    }
+
+    @Benchmark
+    public SpeechServiceOuterClass.TranscriptionConfig configTemplate() {
+        // connect() 마다 profile 을 새로 만들어 조회하는 비용
+        return ConfigTemplate.of(new ConfigTemplate.Profile("ko", false, "pcm_s16le", 16000, 1, true, false, 0, 0, boostWords, 10, true, "")).getConfig();
+    }
+}
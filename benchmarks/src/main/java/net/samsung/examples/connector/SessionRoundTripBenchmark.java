@@ -0,0 +1,133 @@
+package net.samsung.examples.connector;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.*;
+import soniox.speech_service.SpeechServiceGrpc;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Whole TranscribeStream session (config, audio, half-close, last result) against a loopback gRPC server,
+ * so channel pooling, flow control and callback dispatch are measured without the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SessionRoundTripBenchmark {
+
+    @Param({"10", "100"})
+    public int chunks;
+
+    @Param({"3200"})
+    public int chunkSize;
+
+    private Server server;
+    private SonioxASRSessionManager manager;
+    private byte[] audio;
+
+    @Setup
+    public void setup() throws IOException {
+        server = ServerBuilder.forPort(0)
+                .addService(new EchoSpeechService())
+                .build()
+                .start();
+
+        SonioxChannelPool.configure(SonioxChannelPool.DEFAULT_MAX_CHANNELS_PER_KEY, SonioxChannelPool.DEFAULT_MAX_STREAMS_PER_CHANNEL,
+                SonioxChannelPool.DEFAULT_KEEP_ALIVE_MS, SonioxChannelPool.DEFAULT_IDLE_TIMEOUT_MS);
+        ConnectorThreads.configure(ConnectorThreads.Mode.VIRTUAL, 4);
+        manager = new SonioxASRSessionManager("127.0.0.1", server.getPort(), false, "bench");
+        manager.connect("en", true, true, "pcm_s16le", 16000, 1, false, 0, 0, "", 0);
+
+        audio = new byte[chunkSize];
+        new Random(42).nextBytes(audio);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        manager.shutdown(5_000);
+        SonioxChannelPool.shutdownShared();
+        ConnectorThreads.shutdownShared(5_000);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int session() throws InterruptedException {
+        AtomicInteger results = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        SonioxASRSession session = manager.openSession(new SonioxASRSessionListener() {
+            @Override
+            public void onResult(SonioxASRSession session, SpeechServiceOuterClass.Result result) {
+                results.incrementAndGet();
+            }
+
+            @Override
+            public void onStateChanged(SonioxASRSession session, SessionState state) {
+                if (state.isTerminal()) {
+                    done.countDown();
+                }
+            }
+        });
+
+        for (int i = 0; i < chunks; i++) {
+            session.send(audio, 0, chunkSize);
+        }
+        session.complete();
+
+        if (!done.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("session did not finish state=" + session.getState());
+        }
+        return results.get();
+    }
+
+    /**
+     * Answers every audio chunk with one final word, like a fast server would.
+     */
+    static class EchoSpeechService extends SpeechServiceGrpc.SpeechServiceImplBase {
+        @Override
+        public StreamObserver<SpeechServiceOuterClass.TranscribeStreamRequest> transcribeStream(StreamObserver<SpeechServiceOuterClass.TranscribeStreamResponse> responseObserver) {
+            return new StreamObserver<SpeechServiceOuterClass.TranscribeStreamRequest>() {
+                private int position = 0;
+
+                @Override
+                public void onNext(SpeechServiceOuterClass.TranscribeStreamRequest request) {
+                    if (request.hasConfig()) {
+                        return;
+                    }
+                    SpeechServiceOuterClass.Word word = SpeechServiceOuterClass.Word.newBuilder()
+                            .setText("word")
+                            .setStartMs(position)
+                            .setDurationMs(100)
+                            .setIsFinal(true)
+                            .build();
+                    position += 100;
+                    responseObserver.onNext(SpeechServiceOuterClass.TranscribeStreamResponse.newBuilder()
+                            .setResult(SpeechServiceOuterClass.Result.newBuilder()
+                                    .addWords(word)
+                                    .setFinalProcTimeMs(position)
+                                    .setTotalProcTimeMs(position))
+                            .build());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+    }
+}
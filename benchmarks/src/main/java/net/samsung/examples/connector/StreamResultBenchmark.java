@@ -0,0 +1,49 @@
+package net.samsung.examples.connector;
+
+import org.openjdk.jmh.annotations.*;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-response word loop of the gRPC stream connector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StreamResultBenchmark {
+
+    private static final int RESPONSES = 256;
+
+    @Param({"4", "32"})
+    public int wordsPerResponse;
+
+    @Param({"true", "false"})
+    public boolean nonFinal;
+
+    private SonioxASRStreamConnector connector;
+    private SpeechServiceOuterClass.Result[] results;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        // 연결하지 않으므로 chunk sizer 는 기본값(결과로 조정 안 함)
+        connector = new SonioxASRStreamConnector("127.0.0.1", 0, false, "");
+
+        Random random = new Random(42);
+        results = new SpeechServiceOuterClass.Result[RESPONSES];
+        for (int i = 0; i < RESPONSES; i++) {
+            int finals = wordsPerResponse / 2;
+            results[i] = SyntheticResults.result(random, 0, i * wordsPerResponse * 240, finals, nonFinal ? wordsPerResponse - finals : 0, 2);
+        }
+    }
+
+    @Benchmark
+    public void handleResult() {
+        connector.handleResult(results[next], nonFinal);
+        next = (next + 1) % RESPONSES;
+    }
+}
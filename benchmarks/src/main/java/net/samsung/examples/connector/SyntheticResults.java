@@ -0,0 +1,87 @@
+package net.samsung.examples.connector;
+
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.Random;
+
+/**
+ * Deterministic fake responses for the benchmarks.
+ */
+final class SyntheticResults {
+
+    private static final String[] WORDS = {"안녕하세요", "오늘", "회의를", "시작", "하겠습니다", "hello", "world", "speech", "recognition", "test"};
+    private static final String[] PUNCTUATION = {".", "?", "!"};
+
+    private SyntheticResults() {
+    }
+
+    /**
+     * One response with {@code finals} final words followed by {@code nonFinals} non-final words.
+     * Every eighth final word is a punctuation mark so that sentences get split.
+     */
+    static SpeechServiceOuterClass.Result result(Random random, int channel, int startMs, int finals, int nonFinals, int speakers) {
+        SpeechServiceOuterClass.Result.Builder builder = SpeechServiceOuterClass.Result.newBuilder().setChannel(channel);
+        int position = startMs;
+        for (int i = 0; i < finals + nonFinals; i++) {
+            boolean isFinal = i < finals;
+            String text = isFinal && i % 8 == 7 ? PUNCTUATION[random.nextInt(PUNCTUATION.length)] : WORDS[random.nextInt(WORDS.length)];
+            builder.addWords(SpeechServiceOuterClass.Word.newBuilder()
+                    .setText(text)
+                    .setStartMs(position)
+                    .setDurationMs(200)
+                    .setIsFinal(isFinal)
+                    .setSpeaker(1 + (i / 16) % Math.max(1, speakers)));
+            position += 240;
+            if (isFinal) {
+                builder.setFinalProcTimeMs(position);
+            }
+        }
+        return builder.setTotalProcTimeMs(position).build();
+    }
+
+    /**
+     * One WebSocket response in the {@code fw}/{@code nfw} format.
+     */
+    static String webSocketJson(Random random, int startMs, int finals, int nonFinals) {
+        StringBuilder json = new StringBuilder(64 + (finals + nonFinals) * 48);
+        int position = startMs;
+        json.append("{\"fw\":[");
+        for (int i = 0; i < finals; i++) {
+            String text = i % 8 == 7 ? PUNCTUATION[random.nextInt(PUNCTUATION.length)] : WORDS[random.nextInt(WORDS.length)];
+            appendWord(json, i, text, position);
+            position += 240;
+        }
+        json.append("],\"nfw\":[");
+        for (int i = 0; i < nonFinals; i++) {
+            appendWord(json, i, WORDS[random.nextInt(WORDS.length)], position);
+            position += 240;
+        }
+        json.append("],\"fpt\":").append(startMs + finals * 240)
+                .append(",\"tpt\":").append(position)
+                .append(",\"dbg\":\"\",\"spks\":[]}");
+        return json.toString();
+    }
+
+    private static void appendWord(StringBuilder json, int index, String text, int startMs) {
+        if (index > 0) {
+            json.append(',');
+        }
+        json.append("{\"t\":\"").append(text)
+                .append("\",\"s\":").append(startMs)
+                .append(",\"d\":200,\"spk\":1}");
+    }
+
+    static String boostWords(int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(',');
+            }
+            words.append(WORDS[i % WORDS.length]).append(i);
+            if (i % 3 == 0) {
+                words.append(':').append(5 + i % 10);
+            }
+        }
+        return words.toString();
+    }
+}
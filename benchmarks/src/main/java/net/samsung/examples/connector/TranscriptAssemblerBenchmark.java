@@ -0,0 +1,50 @@
+package net.samsung.examples.connector;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordering and segmentation of a whole file transcript, the work formerly done in the file connector's onCompleted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TranscriptAssemblerBenchmark {
+
+    @Param({"1", "2"})
+    public int channels;
+
+    @Param({"1000", "100000"})
+    public int words;
+
+    private SpeechServiceOuterClass.Result[] results;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int wordsPerResult = 16;
+        int count = words / wordsPerResult;
+        results = new SpeechServiceOuterClass.Result[count];
+        for (int i = 0; i < count; i++) {
+            int channel = i % channels;
+            int startMs = (i / channels) * wordsPerResult * 240;
+            results[i] = SyntheticResults.result(random, channel, startMs, wordsPerResult, 0, 3);
+        }
+    }
+
+    @Benchmark
+    public void assemble(Blackhole blackhole) {
+        TranscriptAssembler assembler = new TranscriptAssembler(channels, true, true, 10_000,
+                (channel, speaker, text) -> blackhole.consume(text));
+        for (SpeechServiceOuterClass.Result result : results) {
+            assembler.add(result);
+        }
+        assembler.complete();
+    }
+}
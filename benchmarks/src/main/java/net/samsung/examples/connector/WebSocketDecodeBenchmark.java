@@ -0,0 +1,46 @@
+package net.samsung.examples.connector;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON decode and sentence assembly of the WebSocket connector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WebSocketDecodeBenchmark {
+
+    private static final int MESSAGES = 256;
+
+    @Param({"4", "32"})
+    public int wordsPerMessage;
+
+    private SonioxASRStreamWebSocketConnector connector;
+    private String[] messages;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        // 생성자는 URI 만 만들고 연결하지 않는다. chunk sizer 와 재연결 timeline 은 기본값
+        connector = new SonioxASRStreamWebSocketConnector("ws://127.0.0.1", 0, false, "");
+
+        Random random = new Random(42);
+        messages = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            int finals = wordsPerMessage / 2;
+            messages[i] = SyntheticResults.webSocketJson(random, i * wordsPerMessage * 240, finals, wordsPerMessage - finals);
+        }
+    }
+
+    @Benchmark
+    public void handleText() throws IOException {
+        connector.handleText(messages[next], true);
+        next = (next + 1) % MESSAGES;
+    }
+}
@@ -1,10 +1,34 @@
 package net.samsung.examples;
 
+import net.samsung.examples.audio.AudioSink;
+import net.samsung.examples.audio.FlacEncoder;
+import net.samsung.examples.audio.FlacEncodingSink;
+import net.samsung.examples.audio.MicCapture;
+import net.samsung.examples.audio.VoiceActivityGate;
+import net.samsung.examples.connector.AudioFileReader;
+import net.samsung.examples.connector.ChunkSizer;
+import net.samsung.examples.connector.ChunkingPolicy;
+import net.samsung.examples.connector.ConnectorThreads;
+import net.samsung.examples.connector.FlowControlledSender;
+import net.samsung.examples.connector.PcmFormat;
+import net.samsung.examples.connector.ReconnectPolicy;
+import net.samsung.examples.connector.SonioxASRBatchConnector;
 import net.samsung.examples.connector.SonioxASRFileStreamConnector;
+import net.samsung.examples.connector.SonioxASRMeetingConnector;
 import net.samsung.examples.connector.SonioxASRStreamWebSocketConnector;
-import lombok.SneakyThrows;
 import net.samsung.examples.connector.SonioxASRConnector;
+import net.samsung.examples.connector.SonioxASRSessionManager;
 import net.samsung.examples.connector.SonioxASRStreamConnector;
+import net.samsung.examples.connector.SonioxChannelPool;
+import net.samsung.examples.metrics.MetricsHttpServer;
+import net.samsung.examples.metrics.MetricsRegistry;
+import net.samsung.examples.mock.LoadDriver;
+import net.samsung.examples.mock.MockScript;
+import net.samsung.examples.mock.MockServerOptions;
+import net.samsung.examples.mock.MockSonioxServer;
+import net.samsung.examples.sink.CoalescingTranscriptSink;
+import net.samsung.examples.sink.TranscriptSink;
+import net.samsung.examples.sink.TranscriptSinks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,9 +38,13 @@ import javax.sound.sampled.DataLine;
 import javax.sound.sampled.TargetDataLine;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 
 public class SpeechRecognitionClient {
     private static final Logger logger = LoggerFactory.getLogger(SpeechRecognitionClient.class);
@@ -29,6 +57,27 @@ public class SpeechRecognitionClient {
         // 설정 파일 읽기
         readProperties();
 
+        // Channel pool 설정
+        SonioxChannelPool.configure(
+                Integer.parseInt(prop.getProperty("connector.pool.maxChannels", String.valueOf(SonioxChannelPool.DEFAULT_MAX_CHANNELS_PER_KEY))),
+                Integer.parseInt(prop.getProperty("connector.pool.maxStreamsPerChannel", String.valueOf(SonioxChannelPool.DEFAULT_MAX_STREAMS_PER_CHANNEL))),
+                Long.parseLong(prop.getProperty("connector.pool.keepAliveMs", String.valueOf(SonioxChannelPool.DEFAULT_KEEP_ALIVE_MS))),
+                Long.parseLong(prop.getProperty("connector.pool.idleTimeoutMs", String.valueOf(SonioxChannelPool.DEFAULT_IDLE_TIMEOUT_MS)))
+        );
+        Runtime.getRuntime().addShutdownHook(new Thread(SonioxChannelPool::shutdownShared));
+
+        // session 별 작업 thread (virtual | platform) 와 HttpClient / gRPC callback 공유 pool 크기
+        ConnectorThreads.configure(
+                ConnectorThreads.Mode.valueOf(prop.getProperty("connector.threads", "virtual").toUpperCase()),
+                Integer.parseInt(prop.getProperty("connector.callbackThreads", String.valueOf(ConnectorThreads.DEFAULT_CALLBACK_THREADS)))
+        );
+
+        // 지연 시간 metric 노출 (JMX, Prometheus /metrics)
+        MetricsHttpServer metricsServer = startMetrics();
+
+        // 내장 mock server 사용 시 connector 주소를 mock 으로 변경
+        MockSonioxServer mockServer = startMockServer();
+
         // Connector 생성
         String mode = prop.getProperty("recognition.mode");
         SonioxASRConnector connector = createSonioxASRConnector(mode);
@@ -40,14 +89,54 @@ public class SpeechRecognitionClient {
                 Integer.parseInt(prop.getProperty("connector.proxyPort"))
         );
 
+        // Connector 송신 queue 세팅
+        connector.setSendQueue(
+                Long.parseLong(prop.getProperty("stream.sendQueueBytes", "1048576")),
+                FlowControlledSender.OverflowPolicy.valueOf(prop.getProperty("stream.overflowPolicy", "BLOCK"))
+        );
+
+        // 인식 결과 출력 sink (log : application log 로 출력)
+        TranscriptSink transcriptSink = createTranscriptSink();
+        if (transcriptSink != null) {
+            connector.setTranscriptSink(transcriptSink);
+            Runtime.getRuntime().addShutdownHook(new Thread(transcriptSink::close));
+        }
+
+        // 연결 끊김 시 재연결 (maxRetries 0 : 사용 안 함)
+        ReconnectPolicy reconnectPolicy = new ReconnectPolicy(
+                Integer.parseInt(prop.getProperty("stream.reconnect.maxRetries", "0")),
+                Long.parseLong(prop.getProperty("stream.reconnect.initialBackoffMs", "500")),
+                Long.parseLong(prop.getProperty("stream.reconnect.maxBackoffMs", "10000")),
+                Long.parseLong(prop.getProperty("stream.reconnect.replayMs", "30000"))
+        );
+        // flac stream 은 새 session 에 header 부터 다시 보내야 하므로 재연결하지 않음
+        boolean flacEncoding = isFlacEncoding(mode);
+        if (flacEncoding && reconnectPolicy.isEnabled()) {
+            logger.warn("stream.reconnect is not supported with stream.encoding=flac, disabled");
+            reconnectPolicy = ReconnectPolicy.disabled();
+        }
+        connector.setReconnectPolicy(reconnectPolicy);
+
+        // 문장 분리 기준 (0 : 사용 안 함)
+        connector.setSentenceSplit(
+                Long.parseLong(prop.getProperty("recognition.maxSentenceMs", "0")),
+                Long.parseLong(prop.getProperty("recognition.maxPauseMs", "0"))
+        );
+
+        // boost word 를 서버의 이름 있는 speech context 로 관리 (빈 값 : 세션마다 전송)
+        connector.setSpeechContextName(prop.getProperty("recognition.speechContextName", ""));
+
+        // 요청 당 audio 크기 (fixed_ms / fixed_bytes / adaptive)
+        connector.setChunkingPolicy(createChunkingPolicy());
+
         // Connector 연결
         connector.connect(
                 prop.getProperty("recognition.languageCode"),
                 prop.getProperty("recognition.lowLatency").equals("true"),
                 prop.getProperty("recognition.nonfinal").equals("true"),
-                prop.getProperty("stream.format"),
-                Integer.parseInt(prop.getProperty("stream.sampleRate")),
-                Integer.parseInt(prop.getProperty("stream.channels")),
+                flacEncoding ? "flac" : prop.getProperty("stream.format"),
+                flacEncoding ? 0 : Integer.parseInt(prop.getProperty("stream.sampleRate")),
+                flacEncoding ? 0 : Integer.parseInt(prop.getProperty("stream.channels")),
                 Boolean.parseBoolean(prop.getProperty("recognition.speakerDiarization")),
                 Integer.parseInt(prop.getProperty("recognition.minSpeaker")),
                 Integer.parseInt(prop.getProperty("recognition.maxSpeaker")),
@@ -58,16 +147,123 @@ public class SpeechRecognitionClient {
         // 인식
         recognize(mode, connector);
 
-        int i = 0;
+        // 인식 결과 대기, 마이크 입력은 종료(CTRL+C) 시까지
+        if (mode.startsWith("mic")) {
+            logger.info("waiting for response ... if you want to exit, please press CTRL+C.");
+            CountDownLatch exit = new CountDownLatch(1);
+            Runtime.getRuntime().addShutdownHook(new Thread(exit::countDown));
+            exit.await();
+            return;
+        }
 
-        // 인식 결과 대기
-        while (!mode.contains("file")) {
-            if (i++ % 30000 == 0) {
-                logger.info("waiting for response ... if you want to exit, please press CTRL+C.");
-            }
-            Thread.sleep(1000);
+        SonioxChannelPool.shutdownShared();
+        ConnectorThreads.shutdownShared(5_000);
+        if (transcriptSink != null) {
+            transcriptSink.close();
+        }
+        if (mockServer != null) {
+            mockServer.close();
+        }
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+    }
+
+    private static MetricsHttpServer startMetrics() throws IOException {
+        if (Boolean.parseBoolean(prop.getProperty("metrics.jmx", "false"))) {
+            MetricsRegistry.shared().enableJmx();
+        }
+
+        int port = Integer.parseInt(prop.getProperty("metrics.port", "0"));
+        if (port <= 0) {
+            return null;
+        }
+        return new MetricsHttpServer(prop.getProperty("metrics.host", "127.0.0.1"), port, MetricsRegistry.shared());
+    }
+
+    private static TranscriptSink createTranscriptSink() throws IOException {
+        String type = prop.getProperty("output.sink", "stdout");
+        if (type.equals("log")) {
+            return null;
+        }
+        TranscriptSink sink = TranscriptSinks.create(
+                type,
+                prop.getProperty("output.file", "./output/transcript.jsonl"),
+                Boolean.parseBoolean(prop.getProperty("output.finalOnly", "false")),
+                Integer.parseInt(prop.getProperty("output.queueSize", String.valueOf(TranscriptSinks.DEFAULT_CAPACITY))),
+                Integer.parseInt(prop.getProperty("output.batchSize", String.valueOf(TranscriptSinks.DEFAULT_BATCH))),
+                Long.parseLong(prop.getProperty("output.flushIntervalMs", String.valueOf(TranscriptSinks.DEFAULT_FLUSH_INTERVAL_MS)))
+        );
+
+        // 바뀌지 않은 partial 은 버리고, partialIntervalMs 마다 최신 partial 만 출력 (final 은 즉시)
+        if (Boolean.parseBoolean(prop.getProperty("output.coalesce", "false"))) {
+            sink = new CoalescingTranscriptSink(sink,
+                    Long.parseLong(prop.getProperty("output.partialIntervalMs", "100")),
+                    Boolean.parseBoolean(prop.getProperty("output.partialDeltas", "false")));
         }
+        return sink;
+    }
 
+    // mic 입력을 flac 으로 압축해서 전송하는지 (stream.format 은 capture 형식)
+    private static boolean isFlacEncoding(String mode) {
+        if (!mode.startsWith("micstream") || !prop.getProperty("stream.encoding", "none").equals("flac")) {
+            return false;
+        }
+        if (!prop.getProperty("stream.format").equals("pcm_s16le")) {
+            throw new RuntimeException("stream.encoding=flac needs stream.format=pcm_s16le : " + prop.getProperty("stream.format"));
+        }
+        return true;
+    }
+
+    private static ChunkingPolicy createChunkingPolicy() {
+        int fixedMs = Integer.parseInt(prop.getProperty("stream.chunk.fixedMs", String.valueOf(ChunkingPolicy.DEFAULT_MS)));
+        int fixedBytes = Integer.parseInt(prop.getProperty("stream.chunk.fixedBytes", "65536"));
+        String policy = prop.getProperty("stream.chunk.policy", "fixed_ms");
+        if (policy.equals("fixed_ms")) {
+            return ChunkingPolicy.fixedMs(fixedMs);
+        } else if (policy.equals("fixed_bytes")) {
+            return ChunkingPolicy.fixedBytes(fixedBytes);
+        } else if (policy.equals("adaptive")) {
+            return new ChunkingPolicy(ChunkingPolicy.Mode.ADAPTIVE, fixedMs, fixedBytes,
+                    Integer.parseInt(prop.getProperty("stream.chunk.minMs", "40")),
+                    Integer.parseInt(prop.getProperty("stream.chunk.maxMs", "2000")),
+                    Integer.parseInt(prop.getProperty("stream.chunk.maxBytes", "1048576")),
+                    Long.parseLong(prop.getProperty("stream.chunk.targetLagMs", "1500")));
+        }
+        throw new RuntimeException("the chunk policy is invalid : " + policy);
+    }
+
+    private static MockSonioxServer startMockServer() throws IOException {
+        if (!Boolean.parseBoolean(prop.getProperty("mock.enabled", "false"))) {
+            return null;
+        }
+
+        String scriptFile = prop.getProperty("mock.script", "");
+        MockScript script = scriptFile.isEmpty() ? MockScript.defaultScript() : MockScript.load(scriptFile);
+        MockServerOptions options = MockServerOptions.builder()
+                .latencyMs(Long.parseLong(prop.getProperty("mock.latencyMs", "100")))
+                .jitterMs(Long.parseLong(prop.getProperty("mock.jitterMs", "0")))
+                .wordMs(Integer.parseInt(prop.getProperty("mock.wordMs", "300")))
+                .errorRate(Double.parseDouble(prop.getProperty("mock.errorRate", "0")))
+                .errorAfterMs(Long.parseLong(prop.getProperty("mock.errorAfterMs", "0")))
+                .maxBytesPerSecond(Long.parseLong(prop.getProperty("mock.maxBytesPerSecond", "0")))
+                .build();
+
+        // mock 은 gRPC API 만 제공
+        if (prop.getProperty("recognition.mode").equals("micstream_websocket")) {
+            throw new RuntimeException("mock server does not serve the WebSocket API : micstream_websocket");
+        }
+
+        MockSonioxServer mockServer = new MockSonioxServer(
+                Integer.parseInt(prop.getProperty("mock.grpcPort", "0")),
+                script, options).start();
+        logger.info("mock server enabled options={}", options);
+
+        prop.setProperty("connector.host", mockServer.getHost());
+        prop.setProperty("connector.port", String.valueOf(mockServer.getGrpcPort()));
+        prop.setProperty("connector.useSSL", "false");
+        prop.setProperty("connector.useProxy", "false");
+        return mockServer;
     }
 
     private static SonioxASRConnector createSonioxASRConnector(String mode) {
@@ -80,6 +276,12 @@ public class SpeechRecognitionClient {
                 connector = createSonioxASRStreamConnector();
             } else if (mode.equals("micstream_websocket")) {
                 connector = createSonioxASRStreamWebSocketConnector();
+            } else if (mode.equals("batch")) {
+                connector = createSonioxASRBatchConnector();
+            } else if (mode.equals("loadtest")) {
+                connector = createSonioxASRSessionManager();
+            } else if (mode.equals("meeting")) {
+                connector = createSonioxASRMeetingConnector();
             } else {
                 throw new RuntimeException("the mode is invalid : " + mode);
             }
@@ -92,12 +294,24 @@ public class SpeechRecognitionClient {
     }
 
     private static SonioxASRConnector createASRSonioxFileStreamConnector() throws InterruptedException, IOException {
-        return new SonioxASRFileStreamConnector(
+        SonioxASRFileStreamConnector connector = new SonioxASRFileStreamConnector(
                 prop.getProperty("connector.host"),
                 Integer.parseInt(prop.getProperty("connector.port")),
                 prop.getProperty("connector.useSSL").equals("true"),
                 prop.getProperty("recognition.apiKey")
         );
+        connector.setFileReadMode(
+                Boolean.parseBoolean(prop.getProperty("file.memoryMap", "false")),
+                Integer.parseInt(prop.getProperty("file.chunkSize", "0"))
+        );
+        connector.setParallelChannels(Boolean.parseBoolean(prop.getProperty("file.parallelChannels", "false")));
+        connector.setTimeSlicing(
+                Integer.parseInt(prop.getProperty("file.slice.parallelism", "4")),
+                Long.parseLong(prop.getProperty("file.slice.lengthMs", "0")),
+                Long.parseLong(prop.getProperty("file.slice.overlapMs", "2000")),
+                Long.parseLong(prop.getProperty("file.slice.searchMs", "5000"))
+        );
+        return connector;
     }
 
 
@@ -110,22 +324,61 @@ public class SpeechRecognitionClient {
         );
     }
 
+    private static SonioxASRConnector createSonioxASRBatchConnector() {
+        SonioxASRBatchConnector connector = new SonioxASRBatchConnector(
+                prop.getProperty("connector.host"),
+                Integer.parseInt(prop.getProperty("connector.port")),
+                prop.getProperty("connector.useSSL").equals("true"),
+                prop.getProperty("recognition.apiKey")
+        );
+        connector.setBatchOptions(
+                Integer.parseInt(prop.getProperty("batch.concurrency", "4")),
+                Long.parseLong(prop.getProperty("batch.pollInitialMs", "1000")),
+                Long.parseLong(prop.getProperty("batch.pollMaxMs", "30000"))
+        );
+        return connector;
+    }
+
+    private static SonioxASRConnector createSonioxASRSessionManager() {
+        return new SonioxASRSessionManager(
+                prop.getProperty("connector.host"),
+                Integer.parseInt(prop.getProperty("connector.port")),
+                prop.getProperty("connector.useSSL").equals("true"),
+                prop.getProperty("recognition.apiKey")
+        );
+    }
+
+    private static SonioxASRConnector createSonioxASRMeetingConnector() {
+        return new SonioxASRMeetingConnector(
+                prop.getProperty("connector.host"),
+                Integer.parseInt(prop.getProperty("connector.port")),
+                prop.getProperty("connector.useSSL").equals("true"),
+                prop.getProperty("recognition.apiKey")
+        );
+    }
+
     private static SonioxASRConnector createSonioxASRStreamWebSocketConnector() throws InterruptedException, IOException {
         return new SonioxASRStreamWebSocketConnector(
-                "wss://api.soniox.com",
+                prop.getProperty("connector.websocketUrl", "wss://api.soniox.com"),
                 Integer.parseInt(prop.getProperty("connector.port")),
                 prop.getProperty("connector.useSSL").equals("true"),
                 prop.getProperty("recognition.apiKey")
         );
     }
 
-    private static void recognize(String mode, SonioxASRConnector connector) throws IOException {
+    private static void recognize(String mode, SonioxASRConnector connector) throws IOException, InterruptedException {
         if (mode.equals("filestream")) {
             recognizeAudioStreamFromFile((SonioxASRFileStreamConnector) connector);
+        } else if (mode.equals("batch")) {
+            recognizeBatch((SonioxASRBatchConnector) connector);
         } else if (mode.equals("micstream")) {
-            recognizeAudioStreamFromMic((SonioxASRStreamConnector) connector);
+            recognizeAudioStreamFromMic((SonioxASRStreamConnector) connector, connector.getChunkSizer());
         } else if (mode.equals("micstream_websocket")) {
-            recognizeAudioStreamFromMic((SonioxASRStreamWebSocketConnector) connector);
+            recognizeAudioStreamFromMic((SonioxASRStreamWebSocketConnector) connector, connector.getChunkSizer());
+        } else if (mode.equals("loadtest")) {
+            runLoadTest((SonioxASRSessionManager) connector);
+        } else if (mode.equals("meeting")) {
+            recognizeMeeting((SonioxASRMeetingConnector) connector);
         } else {
             logger.error("the mode is invalid : {}", mode);
         }
@@ -135,76 +388,105 @@ public class SpeechRecognitionClient {
         connector.recognize(prop.getProperty("file.audio"));
     }
 
-    private static void recognizeAudioStreamFromMic(SonioxASRStreamConnector connector) {
-
-        int BYTES_PER_BUFFER = Integer.parseInt(prop.getProperty("stream.sampleRate")) * 2 * Integer.parseInt(prop.getProperty("stream.channels")) / 4; // buffer size in bytes 16000 x 2(16bit/8bit) x 1(mono) / 4 (250ms)
-
-        //logger.error("mic buffer size=" + BYTES_PER_BUFFER + " samplerate=" + Integer.parseInt(prop.getProperty("stream.sampleRate")) + " channels=" + Integer.parseInt(prop.getProperty("stream.channels")));
-
-        TargetDataLine targetDataLine = null;
-
-        AudioFormat audioFormat = new AudioFormat(Integer.parseInt(prop.getProperty("stream.sampleRate")), 16, Integer.parseInt(prop.getProperty("stream.channels")), true, false);
-        DataLine.Info targetInfo =
-                new DataLine.Info(
-                        TargetDataLine.class,
-                        audioFormat); // Set the system information to read from the microphone audio
+    private static void recognizeBatch(SonioxASRBatchConnector connector) throws IOException, InterruptedException {
+        connector.recognize(
+                prop.getProperty("batch.input"),
+                prop.getProperty("batch.output", "./output"),
+                prop.getProperty("batch.checkpoint", "./output/batch.checkpoint")
+        );
+    }
 
-        // 음성 마이크 입력 처리 Thread 가동
-        if (!AudioSystem.isLineSupported(targetInfo)) {
-            logger.error("Microphone not supported");
-            System.exit(0);
+    private static void runLoadTest(SonioxASRSessionManager manager) throws IOException, InterruptedException {
+        int sampleRate = Integer.parseInt(prop.getProperty("stream.sampleRate"));
+        int channels = Integer.parseInt(prop.getProperty("stream.channels"));
+        int bytesPerMs = Math.max(1, (sampleRate > 0 ? sampleRate : 16000) * 2 * Math.max(1, channels) / 1000);
+        long chunkMs = Long.parseLong(prop.getProperty("loadtest.chunkMs", "100"));
+
+        // file.audio 가 없으면 audioMs 길이의 잡음을 전송
+        byte[] audio;
+        String fileName = prop.getProperty("file.audio", "");
+        if (fileName.isEmpty()) {
+            audio = new byte[(int) (Long.parseLong(prop.getProperty("loadtest.audioMs", "10000")) * bytesPerMs)];
+            new Random(0).nextBytes(audio);
+        } else {
+            audio = Files.readAllBytes(Paths.get(fileName));
         }
 
-        final boolean[] latchDown = {false};
-
-        try {
-
-            // Target data line captures the audio stream the microphone produces.
-            targetDataLine = (TargetDataLine) AudioSystem.getLine(targetInfo);
-            targetDataLine.open(audioFormat);
+        LoadDriver driver = new LoadDriver(manager, audio, (int) (chunkMs * bytesPerMs), chunkMs,
+                Boolean.parseBoolean(prop.getProperty("loadtest.realtime", "true")));
+        LoadDriver.LoadReport report = driver.run(
+                Integer.parseInt(prop.getProperty("loadtest.sessions", "10")),
+                Integer.parseInt(prop.getProperty("loadtest.rounds", "1")),
+                Long.parseLong(prop.getProperty("loadtest.rampUpMs", "1000")));
 
-            TargetDataLine finalTargetDataLine = targetDataLine;
-            class MicBuffer implements Runnable {
-
-                @SneakyThrows
-                @Override
-                public void run() {
-                    finalTargetDataLine.start();
+        logger.info("load test finished {}", report);
+        manager.shutdown(5_000);
+    }
 
-                    while (finalTargetDataLine.isOpen()) {
-                        byte[] data = new byte[BYTES_PER_BUFFER];
-                        int numBytesRead = finalTargetDataLine.read(data, 0, data.length);
-                        if ((numBytesRead <= 0) && (finalTargetDataLine.isOpen())) {
-                            continue;
+    // 참가자마다 file 하나를 thread 하나로 chunkMs 단위 전송, 모두 하나의 TranscribeMeeting call 을 사용
+    private static void recognizeMeeting(SonioxASRMeetingConnector connector) throws InterruptedException {
+        int bytesPerSecond = PcmFormat.bytesPerSecond(prop.getProperty("stream.format"),
+                Integer.parseInt(prop.getProperty("stream.sampleRate")), Integer.parseInt(prop.getProperty("stream.channels")));
+        long chunkMs = Long.parseLong(prop.getProperty("meeting.chunkMs", "100"));
+        int chunkBytes = (int) Math.max(1, (bytesPerSecond > 0 ? bytesPerSecond : 32000) * chunkMs / 1000);
+        boolean realtime = Boolean.parseBoolean(prop.getProperty("meeting.realtime", "true"));
+
+        List<Thread> threads = new ArrayList<>();
+        String[] files = prop.getProperty("meeting.audio", "").split(",");
+        for (int i = 0; i < files.length; i++) {
+            String fileName = files[i].trim();
+            if (fileName.isEmpty()) {
+                continue;
+            }
+            SonioxASRMeetingConnector.Participant participant = connector.join(i);
+            threads.add(ConnectorThreads.shared().startSessionThread("meeting-participant-" + i, () -> {
+                try {
+                    AudioFileReader.readChunks(fileName, chunkBytes, false, chunk -> {
+                        participant.send(chunk);
+                        if (realtime) {
+                            try {
+                                Thread.sleep(chunkMs);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
                         }
-
-                        //logger.error("data.length=" + data.length + " numBytesRead=" + numBytesRead);
-
-                        // recognize
-                        connector.recognize(data.clone(), data.length);
-                    }
-
-                    connector.complete();
-                    latchDown[0] = true;
+                    });
+                    participant.endSegment();
+                } catch (IOException e) {
+                    logger.error("meeting participant stream_id={} file={} : {}", participant.getStreamId(), fileName, e.getMessage());
                 }
-            }
+            }));
+        }
 
-            Thread micThread = new Thread(new MicBuffer());
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        connector.complete();
 
-            micThread.start();
-        } catch (Exception e) {
-            logger.error("Microphone not supported: " + e.getMessage());
+        logger.info("Waiting for result...");
+        if (!connector.await(Long.parseLong(prop.getProperty("meeting.waitMs", "60000")))) {
+            logger.warn("meeting results timed out");
         }
+        logger.info("Completed !! participants={}", connector.getParticipantCount());
     }
 
-    private static void recognizeAudioStreamFromMic(SonioxASRStreamWebSocketConnector connector) {
+    private static void recognizeAudioStreamFromMic(AudioSink sink, ChunkSizer chunkSizer) {
         logger.info("recognize...");
 
-        int BYTES_PER_BUFFER = Integer.parseInt(prop.getProperty("stream.sampleRate")) * 2 * Integer.parseInt(prop.getProperty("stream.channels")) / 4; // buffer size in bytes 16000 x 2(16bit/8bit) x 1(mono) / 4 (250ms)
-
-        //logger.error("mic buffer size=" + BYTES_PER_BUFFER + " samplerate=" + Integer.parseInt(prop.getProperty("stream.sampleRate")) + " channels=" + Integer.parseInt(prop.getProperty("stream.channels")));
+        int sampleRate = Integer.parseInt(prop.getProperty("stream.sampleRate"));
+        int channels = Integer.parseInt(prop.getProperty("stream.channels"));
+        boolean flacEncoding = isFlacEncoding(prop.getProperty("recognition.mode"));
+        if (flacEncoding) {
+            // connector 의 chunk sizer 는 압축된 byte 기준이므로 capture 는 PCM 기준 policy 로 (결과에 따른 조정 없음)
+            chunkSizer = createChunkingPolicy().newSizer(PcmFormat.bytesPerSecond("pcm_s16le", sampleRate, channels),
+                    PcmFormat.frameBytes("pcm_s16le", channels), prop.getProperty("recognition.lowLatency").equals("true"));
+        }
 
-        TargetDataLine targetDataLine = null;
+        // ring 의 buffer 는 가장 큰 chunk 크기로 할당하고, 읽는 크기는 chunk sizer 를 따름
+        int BYTES_PER_BUFFER = chunkSizer != null
+                ? chunkSizer.getMaxChunkBytes()
+                : Integer.parseInt(prop.getProperty("stream.sampleRate")) * 2 * Integer.parseInt(prop.getProperty("stream.channels")) / 4; // buffer size in bytes 16000 x 2(16bit/8bit) x 1(mono) / 4 (250ms)
+        int RING_SIZE = Integer.parseInt(prop.getProperty("stream.ringSize", "8"));
 
         AudioFormat audioFormat = new AudioFormat(Integer.parseInt(prop.getProperty("stream.sampleRate")), 16, Integer.parseInt(prop.getProperty("stream.channels")), true, false);
         DataLine.Info targetInfo =
@@ -212,48 +494,44 @@ public class SpeechRecognitionClient {
                         TargetDataLine.class,
                         audioFormat); // Set the system information to read from the microphone audio
 
+        // 음성 마이크 입력 처리 Thread 가동
         if (!AudioSystem.isLineSupported(targetInfo)) {
             logger.error("Microphone not supported");
             System.exit(0);
         }
 
-        final boolean[] latchDown = {false};
-
         try {
 
             // Target data line captures the audio stream the microphone produces.
-            targetDataLine = (TargetDataLine) AudioSystem.getLine(targetInfo);
+            TargetDataLine targetDataLine = (TargetDataLine) AudioSystem.getLine(targetInfo);
             targetDataLine.open(audioFormat);
 
-            TargetDataLine finalTargetDataLine = targetDataLine;
-            class MicBuffer implements Runnable {
-
-                @SneakyThrows
-                @Override
-                public void run() {
-                    finalTargetDataLine.start();
-
-                    while (finalTargetDataLine.isOpen()) {
-                        byte[] data = new byte[BYTES_PER_BUFFER];
-                        int numBytesRead = finalTargetDataLine.read(data, 0, data.length);
-                        if ((numBytesRead <= 0) && (finalTargetDataLine.isOpen())) {
-                            continue;
-                        }
-
-                        //logger.error("data.length=" + data.length + " numBytesRead=" + numBytesRead);
-
-                        // recognize
-                        connector.recognize(data.clone(), data.length);
-                    }
-
-                    connector.complete();
-                    latchDown[0] = true;
-                }
+            // 공유 encoder pool 에서 flac 으로 압축 후 전송
+            if (flacEncoding) {
+                sink = new FlacEncodingSink(sink,
+                        new FlacEncoder(sampleRate, channels,
+                                Integer.parseInt(prop.getProperty("stream.encoding.blockSize", String.valueOf(FlacEncoder.DEFAULT_BLOCK_SIZE)))),
+                        ConnectorThreads.shared().getEncoderExecutor(),
+                        Integer.parseInt(prop.getProperty("stream.encoding.maxPending", "4")));
             }
 
-            Thread micThread = new Thread(new MicBuffer());
+            // 무음 구간은 전송하지 않음 (hangover 이후부터, 말 시작 전 preroll 은 함께 전송)
+            if (Boolean.parseBoolean(prop.getProperty("stream.vad.enabled", "false"))) {
+                sink = new VoiceActivityGate(sink,
+                        Integer.parseInt(prop.getProperty("stream.sampleRate")),
+                        Integer.parseInt(prop.getProperty("stream.channels")),
+                        Double.parseDouble(prop.getProperty("stream.vad.thresholdDb", "-45")),
+                        Double.parseDouble(prop.getProperty("stream.vad.maxZeroCrossingRate", "0.3")),
+                        Long.parseLong(prop.getProperty("stream.vad.hangoverMs", "1000")),
+                        Long.parseLong(prop.getProperty("stream.vad.prerollMs", "500")),
+                        BYTES_PER_BUFFER);
+            }
 
-            micThread.start();
+            // capture thread 가 미리 할당된 buffer ring 에 채우고, sender thread 가 connector 로 전송 후 재사용
+            MicCapture micCapture = new MicCapture(targetDataLine, BYTES_PER_BUFFER,
+                    chunkSizer != null ? chunkSizer::getChunkBytes : () -> BYTES_PER_BUFFER, RING_SIZE, sink,
+                    ConnectorThreads.shared().sessionThreads("mic-sender"));
+            micCapture.start();
         } catch (Exception e) {
             logger.error("Microphone not supported: " + e.getMessage());
         }
@@ -0,0 +1,45 @@
+package net.samsung.examples.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable audio slot of an {@link AudioBufferRing}. Valid only until it is handed back to the ring.
+ */
+public final class AudioBuffer {
+    private final byte[] data;
+    private final ByteBuffer view;
+    private int length = 0;
+
+    AudioBuffer(int capacity) {
+        this.data = new byte[capacity];
+        this.view = ByteBuffer.wrap(data);
+    }
+
+    public byte[] array() {
+        return data;
+    }
+
+    public int capacity() {
+        return data.length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        if (length < 0 || length > data.length) {
+            throw new IllegalArgumentException("length out of range : " + length);
+        }
+        this.length = length;
+    }
+
+    /**
+     * The valid bytes as a ByteBuffer. The same view object is returned on every call.
+     */
+    public ByteBuffer byteBuffer() {
+        view.clear();
+        view.limit(length);
+        return view;
+    }
+}
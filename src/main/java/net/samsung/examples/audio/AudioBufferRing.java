@@ -0,0 +1,53 @@
+package net.samsung.examples.audio;
+
+/**
+ * Preallocated ring of audio buffers handed from one capture thread to one sender thread.
+ * Free and filled buffers circulate through two single-producer/single-consumer queues.
+ */
+public final class AudioBufferRing {
+    private final SpscQueue<AudioBuffer> free;
+    private final SpscQueue<AudioBuffer> filled;
+    private final int bufferCapacity;
+
+    public AudioBufferRing(int size, int bufferCapacity) {
+        this.free = new SpscQueue<>(size);
+        this.filled = new SpscQueue<>(size);
+        this.bufferCapacity = bufferCapacity;
+        for (int i = 0; i < size; i++) {
+            free.offer(new AudioBuffer(bufferCapacity));
+        }
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    // producer side
+
+    public AudioBuffer acquire(long timeoutNanos) {
+        return free.poll(timeoutNanos);
+    }
+
+    public void publish(AudioBuffer buffer) {
+        if (!filled.offer(buffer)) {
+            throw new IllegalStateException("ring is over-published");
+        }
+    }
+
+    // consumer side
+
+    public AudioBuffer take(long timeoutNanos) {
+        return filled.poll(timeoutNanos);
+    }
+
+    public void recycle(AudioBuffer buffer) {
+        buffer.setLength(0);
+        if (!free.offer(buffer)) {
+            throw new IllegalStateException("ring is over-recycled");
+        }
+    }
+
+    public boolean hasFilled() {
+        return !filled.isEmpty();
+    }
+}
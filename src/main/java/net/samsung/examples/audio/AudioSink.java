@@ -0,0 +1,27 @@
+package net.samsung.examples.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Receiver of captured audio. The buffer may be reused as soon as {@link #write(AudioBuffer)} returns.
+ */
+public interface AudioSink {
+
+    void write(AudioBuffer buffer) throws IOException;
+
+    void complete() throws IOException;
+
+    /**
+     * Subscribes to an audio publisher and writes its chunks here, completing this sink when the publisher completes.
+     *
+     * @param prefetch chunks requested ahead of the write in progress
+     */
+    default CompletableFuture<Void> subscribe(Flow.Publisher<ByteBuffer> audio, int prefetch) {
+        AudioSubscriber subscriber = new AudioSubscriber(this, prefetch);
+        audio.subscribe(subscriber);
+        return subscriber.getDone();
+    }
+}
@@ -0,0 +1,94 @@
+package net.samsung.examples.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Writes the chunks of an audio publisher to an {@link AudioSink}.
+ * Up to {@code prefetch} chunks are requested ahead, and one more each time a write returns,
+ * so a sink that blocks on a full send queue holds back the publisher.
+ */
+public class AudioSubscriber implements Flow.Subscriber<ByteBuffer> {
+    private static final Logger logger = LoggerFactory.getLogger(AudioSubscriber.class);
+
+    private final AudioSink sink;
+    private final int prefetch;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+    private AudioBuffer buffer = null;
+
+    public AudioSubscriber(AudioSink sink, int prefetch) {
+        this.sink = sink;
+        this.prefetch = Math.max(1, prefetch);
+    }
+
+    /**
+     * Completes after the sink is completed, or exceptionally when the publisher or the sink failed.
+     */
+    public CompletableFuture<Void> getDone() {
+        return done;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        if (done.isDone()) {
+            return;
+        }
+
+        // chunk 를 재사용 buffer 로 복사, sink 는 write 가 끝나면 buffer 를 참조하지 않는다
+        // publisher 가 가진 buffer 의 position 은 건드리지 않는다
+        int length = item.remaining();
+        if (buffer == null || buffer.capacity() < length) {
+            buffer = new AudioBuffer(length);
+        }
+        item.duplicate().get(buffer.array(), 0, length);
+        buffer.setLength(length);
+
+        try {
+            sink.write(buffer);
+        } catch (Exception e) {
+            logger.error("audio write failed: {}", e.getMessage());
+            subscription.cancel();
+            done.completeExceptionally(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        logger.error("audio publisher failed: {}", throwable.getMessage());
+        // 받은 audio 까지는 인식 결과를 받도록 stream 을 닫는다
+        complete();
+        done.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        complete();
+        done.complete(null);
+    }
+
+    private void complete() {
+        try {
+            sink.complete();
+        } catch (Exception e) {
+            done.completeExceptionally(e);
+        }
+    }
+}
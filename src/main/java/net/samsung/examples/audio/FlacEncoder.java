@@ -0,0 +1,384 @@
+package net.samsung.examples.audio;
+
+import java.util.Arrays;
+
+/**
+ * Encodes 16 bit little endian PCM into a FLAC stream, one frame per call.
+ * Frames use variable block sizes numbered by their first sample, so each chunk of audio can be sent
+ * as soon as it is captured. Each channel is coded as a constant, a fixed linear predictor of order 0 to 4
+ * with partitioned Rice residuals, or verbatim, whichever is smallest. Frames do not depend on each other
+ * and may be encoded on different threads; the stream header must be sent first.
+ */
+public final class FlacEncoder {
+
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+    // STREAMINFO 의 최소 block 크기, 마지막 frame 만 더 작을 수 있음
+    public static final int MIN_BLOCK_SIZE = 16;
+
+    private static final int BITS_PER_SAMPLE = 16;
+    private static final int MAX_FIXED_ORDER = 4;
+    private static final int MAX_PARTITION_ORDER = 8;
+    private static final int MAX_RICE_PARAMETER = 14;
+
+    private static final int[] CRC8_TABLE = new int[256];
+    private static final int[] CRC16_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc8 = i;
+            int crc16 = i << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc8 = (crc8 & 0x80) != 0 ? (crc8 << 1) ^ 0x07 : crc8 << 1;
+                crc16 = (crc16 & 0x8000) != 0 ? (crc16 << 1) ^ 0x8005 : crc16 << 1;
+            }
+            CRC8_TABLE[i] = crc8 & 0xFF;
+            CRC16_TABLE[i] = crc16 & 0xFFFF;
+        }
+    }
+
+    private final int sampleRate;
+    private final int channels;
+    private final int maxBlockSize;
+
+    /**
+     * @param maxBlockSize longer chunks are split into frames of at most this many samples per channel
+     */
+    public FlacEncoder(int sampleRate, int channels, int maxBlockSize) {
+        if (sampleRate <= 0 || sampleRate > 655350) {
+            throw new IllegalArgumentException("sampleRate out of range : " + sampleRate);
+        }
+        if (channels < 1 || channels > 8) {
+            throw new IllegalArgumentException("channels out of range : " + channels);
+        }
+        if (maxBlockSize < MIN_BLOCK_SIZE || maxBlockSize > 65535) {
+            throw new IllegalArgumentException("maxBlockSize out of range : " + maxBlockSize);
+        }
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    public int getMaxBlockSize() {
+        return maxBlockSize;
+    }
+
+    /**
+     * Bytes of one sample of every channel.
+     */
+    public int getFrameBytes() {
+        return channels * 2;
+    }
+
+    /**
+     * The {@code fLaC} marker and STREAMINFO block. Total samples and MD5 are left unknown.
+     */
+    public byte[] streamHeader() {
+        BitWriter out = new BitWriter(42);
+        out.write(32, 0x664C6143);          // "fLaC"
+        out.write(1, 1);                    // last metadata block
+        out.write(7, 0);                    // STREAMINFO
+        out.write(24, 34);
+        out.write(16, MIN_BLOCK_SIZE);
+        out.write(16, maxBlockSize);
+        out.write(24, 0);                   // min / max frame size unknown
+        out.write(24, 0);
+        out.write(20, sampleRate);
+        out.write(3, channels - 1);
+        out.write(5, BITS_PER_SAMPLE - 1);
+        out.write(4, 0);                    // total samples unknown (36 bits)
+        out.write(32, 0);
+        for (int i = 0; i < 4; i++) {       // MD5 unknown
+            out.write(32, 0);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes one frame.
+     *
+     * @param pcm          interleaved 16 bit little endian samples, {@code length} a multiple of {@link #getFrameBytes()}
+     * @param firstSample  number of samples per channel sent before this frame
+     */
+    public byte[] encodeFrame(byte[] pcm, int offset, int length, long firstSample) {
+        int frameBytes = getFrameBytes();
+        int blockSize = length / frameBytes;
+        if (blockSize < 1 || blockSize > maxBlockSize || length % frameBytes != 0) {
+            throw new IllegalArgumentException("invalid frame length : " + length);
+        }
+
+        int[][] samples = new int[channels][blockSize];
+        for (int i = 0, p = offset; i < blockSize; i++) {
+            for (int ch = 0; ch < channels; ch++, p += 2) {
+                samples[ch][i] = (short) ((pcm[p + 1] << 8) | (pcm[p] & 0xFF));
+            }
+        }
+
+        BitWriter out = new BitWriter(length / 2 + 64);
+        writeFrameHeader(out, blockSize, firstSample);
+        out.write(8, crc8(out.array(), out.size()));
+
+        int[] residual = new int[blockSize];
+        for (int ch = 0; ch < channels; ch++) {
+            writeSubframe(out, samples[ch], residual);
+        }
+
+        out.alignToByte();
+        out.write(16, crc16(out.array(), out.size()));
+        return out.toByteArray();
+    }
+
+    private void writeFrameHeader(BitWriter out, int blockSize, long firstSample) {
+        out.write(14, 0x3FFE);              // sync
+        out.write(1, 0);
+        out.write(1, 1);                    // variable block size
+        out.write(4, 0x7);                  // block size - 1 in 16 bits after the sample number
+        int rateCode = sampleRateCode();
+        out.write(4, rateCode);
+        out.write(4, channels - 1);         // independent channels
+        out.write(3, 0x4);                  // 16 bits per sample
+        out.write(1, 0);
+        writeUtf8(out, firstSample);
+        out.write(16, blockSize - 1);
+        if (rateCode == 0xC) {
+            out.write(8, sampleRate / 1000);
+        } else if (rateCode == 0xD) {
+            out.write(16, sampleRate);
+        } else if (rateCode == 0xE) {
+            out.write(16, sampleRate / 10);
+        }
+    }
+
+    private int sampleRateCode() {
+        switch (sampleRate) {
+            case 8000: return 0x4;
+            case 16000: return 0x5;
+            case 22050: return 0x6;
+            case 24000: return 0x7;
+            case 32000: return 0x8;
+            case 44100: return 0x9;
+            case 48000: return 0xA;
+            case 96000: return 0xB;
+            default:
+                if (sampleRate % 1000 == 0 && sampleRate / 1000 <= 255) {
+                    return 0xC;
+                } else if (sampleRate <= 65535) {
+                    return 0xD;
+                } else if (sampleRate % 10 == 0) {
+                    return 0xE;
+                }
+                return 0x0;                 // from STREAMINFO
+        }
+    }
+
+    // frame header 의 sample 번호, UTF-8 과 같은 방식으로 최대 36 bit
+    private static void writeUtf8(BitWriter out, long value) {
+        if (value < 0x80) {
+            out.write(8, value);
+            return;
+        }
+        int bytes = value < 0x800 ? 2 : value < 0x10000 ? 3 : value < 0x200000 ? 4
+                : value < 0x4000000 ? 5 : value < 0x80000000L ? 6 : 7;
+        out.write(8, ((0xFF00 >> bytes) & 0xFF) | (value >>> (6 * (bytes - 1))));
+        for (int i = bytes - 2; i >= 0; i--) {
+            out.write(8, 0x80 | ((value >>> (6 * i)) & 0x3F));
+        }
+    }
+
+    private static void writeSubframe(BitWriter out, int[] x, int[] residual) {
+        int n = x.length;
+
+        boolean constant = true;
+        for (int i = 1; i < n && constant; i++) {
+            constant = x[i] == x[0];
+        }
+        if (constant) {
+            out.write(8, 0);                // CONSTANT
+            out.write(BITS_PER_SAMPLE, x[0]);
+            return;
+        }
+
+        // 잔차 절대값 합이 가장 작은 고정 predictor 차수
+        int order = 0;
+        long bestSum = Long.MAX_VALUE;
+        for (int o = 0; o <= Math.min(MAX_FIXED_ORDER, n - 1); o++) {
+            long sum = 0;
+            for (int i = o; i < n; i++) {
+                sum += Math.abs(predictResidual(x, i, o));
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                order = o;
+            }
+        }
+        for (int i = order; i < n; i++) {
+            residual[i] = zigzag(predictResidual(x, i, order));
+        }
+
+        int partitionOrder = 0;
+        long bestBits = Long.MAX_VALUE;
+        int maxPartitionOrder = 0;
+        while (maxPartitionOrder < MAX_PARTITION_ORDER && n % (2 << maxPartitionOrder) == 0
+                && (n >> (maxPartitionOrder + 1)) > order) {
+            maxPartitionOrder++;
+        }
+        for (int p = 0; p <= maxPartitionOrder; p++) {
+            long bits = 0;
+            for (int part = 0; part < (1 << p); part++) {
+                int start = part == 0 ? order : part * (n >> p);
+                int end = (part + 1) * (n >> p);
+                bits += 4 + riceBits(residual, start, end, riceParameter(residual, start, end));
+            }
+            if (bits < bestBits) {
+                bestBits = bits;
+                partitionOrder = p;
+            }
+        }
+
+        long fixedBits = 8 + (long) order * BITS_PER_SAMPLE + 6 + bestBits;
+        if (fixedBits >= 8 + (long) n * BITS_PER_SAMPLE) {
+            out.write(8, 0x02);             // VERBATIM
+            for (int sample : x) {
+                out.write(BITS_PER_SAMPLE, sample);
+            }
+            return;
+        }
+
+        out.write(8, (0x08 | order) << 1); // FIXED
+        for (int i = 0; i < order; i++) {
+            out.write(BITS_PER_SAMPLE, x[i]);
+        }
+        out.write(2, 0);                    // 4 bit Rice parameters
+        out.write(4, partitionOrder);
+        for (int part = 0; part < (1 << partitionOrder); part++) {
+            int start = part == 0 ? order : part * (n >> partitionOrder);
+            int end = (part + 1) * (n >> partitionOrder);
+            int k = riceParameter(residual, start, end);
+            out.write(4, k);
+            for (int i = start; i < end; i++) {
+                out.writeUnary(residual[i] >>> k);
+                out.write(k, residual[i]);
+            }
+        }
+    }
+
+    private static int predictResidual(int[] x, int i, int order) {
+        switch (order) {
+            case 0: return x[i];
+            case 1: return x[i] - x[i - 1];
+            case 2: return x[i] - 2 * x[i - 1] + x[i - 2];
+            case 3: return x[i] - 3 * x[i - 1] + 3 * x[i - 2] - x[i - 3];
+            default: return x[i] - 4 * x[i - 1] + 6 * x[i - 2] - 4 * x[i - 3] + x[i - 4];
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    // 평균 크기로 추정한 값과 그 양 옆 중 가장 작은 parameter
+    private static int riceParameter(int[] u, int start, int end) {
+        int count = end - start;
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = start; i < end; i++) {
+            sum += u[i] & 0xFFFFFFFFL;
+        }
+        long mean = sum / count;
+        int estimate = mean > 0 ? 63 - Long.numberOfLeadingZeros(mean) : 0;
+
+        int best = 0;
+        long bestBits = Long.MAX_VALUE;
+        for (int k = Math.max(0, estimate - 1); k <= Math.min(MAX_RICE_PARAMETER, estimate + 1); k++) {
+            long bits = riceBits(u, start, end, k);
+            if (bits < bestBits) {
+                bestBits = bits;
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    private static long riceBits(int[] u, int start, int end, int k) {
+        long bits = (long) (end - start) * (k + 1);
+        for (int i = start; i < end; i++) {
+            bits += u[i] >>> k;
+        }
+        return bits;
+    }
+
+    private static int crc8(byte[] data, int length) {
+        int crc = 0;
+        for (int i = 0; i < length; i++) {
+            crc = CRC8_TABLE[(crc ^ data[i]) & 0xFF];
+        }
+        return crc;
+    }
+
+    private static int crc16(byte[] data, int length) {
+        int crc = 0;
+        for (int i = 0; i < length; i++) {
+            crc = ((crc << 8) ^ CRC16_TABLE[((crc >>> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+        }
+        return crc;
+    }
+
+    private static final class BitWriter {
+        private byte[] data;
+        private int size = 0;
+        private long bits = 0;
+        private int bitCount = 0;
+
+        BitWriter(int capacity) {
+            this.data = new byte[Math.max(16, capacity)];
+        }
+
+        // 하위 count bit 를 씀 (count <= 32)
+        void write(int count, long value) {
+            if (count == 0) {
+                return;
+            }
+            bits = (bits << count) | (value & ((1L << count) - 1));
+            bitCount += count;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                put((byte) (bits >>> bitCount));
+            }
+            bits &= (1L << bitCount) - 1;
+        }
+
+        void writeUnary(int zeros) {
+            while (zeros >= 32) {
+                write(32, 0);
+                zeros -= 32;
+            }
+            write(zeros + 1, 1);
+        }
+
+        void alignToByte() {
+            if (bitCount > 0) {
+                write(8 - bitCount, 0);
+            }
+        }
+
+        byte[] array() {
+            return data;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        private void put(byte b) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = b;
+        }
+    }
+}
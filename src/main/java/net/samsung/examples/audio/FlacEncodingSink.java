@@ -0,0 +1,143 @@
+package net.samsung.examples.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Encodes the 16 bit PCM written here to FLAC and writes the stream to the downstream sink.
+ * Each write becomes one or more frames encoded on {@code executor}, so that many streams share a few
+ * encoder threads; frames are written downstream in order on the writing thread, which also keeps
+ * downstream backpressure on the caller. A write returns once the first frame of its audio is sent, so the
+ * encoding adds no chunk of latency; up to {@code maxPending} later frames of a long write are left encoding
+ * and sent by the next write. Writes shorter than {@link FlacEncoder#MIN_BLOCK_SIZE} samples wait for the next one.
+ */
+public class FlacEncodingSink implements AudioSink {
+    private static final Logger logger = LoggerFactory.getLogger(FlacEncodingSink.class);
+
+    private final AudioSink downstream;
+    private final FlacEncoder encoder;
+    private final Executor executor;
+    private final int maxPending;
+
+    private final ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private byte[] carry;
+    private int carryLength = 0;
+    private AudioBuffer out = new AudioBuffer(0);
+    private boolean headerSent = false;
+    private long nextSample = 0;
+
+    // metrics
+    private long pcmBytes = 0;
+    private long encodedBytes = 0;
+
+    public FlacEncodingSink(AudioSink downstream, FlacEncoder encoder, Executor executor, int maxPending) {
+        this.downstream = downstream;
+        this.encoder = encoder;
+        this.executor = executor;
+        this.maxPending = Math.max(1, maxPending);
+        this.carry = new byte[encoder.getMaxBlockSize() * encoder.getFrameBytes()];
+    }
+
+    @Override
+    public void write(AudioBuffer buffer) throws IOException {
+        if (!headerSent) {
+            send(encoder.streamHeader());
+            headerSent = true;
+        }
+
+        append(buffer.array(), buffer.length());
+        pcmBytes += buffer.length();
+        int submitted = 0;
+        if (carryLength / encoder.getFrameBytes() >= FlacEncoder.MIN_BLOCK_SIZE) {
+            submitted = submitFrames();
+        }
+
+        // 이번 write 의 첫 frame 과 그 앞의 frame 은 기다려 보낸다
+        int waitFor = pending.size() - Math.max(0, submitted - 1);
+        while (!pending.isEmpty() && (waitFor > 0 || pending.peek().isDone() || pending.size() > maxPending)) {
+            send(await(pending.poll()));
+            waitFor--;
+        }
+    }
+
+    @Override
+    public void complete() throws IOException {
+        if (!headerSent) {
+            send(encoder.streamHeader());
+            headerSent = true;
+        }
+        submitFrames();
+        while (!pending.isEmpty()) {
+            send(await(pending.poll()));
+        }
+        logger.info("flac stream completed pcmBytes={} encodedBytes={} ratio={}", pcmBytes, encodedBytes,
+                encodedBytes > 0 ? String.format("%.2f", (double) pcmBytes / encodedBytes) : "-");
+        downstream.complete();
+    }
+
+    public long getPcmBytes() {
+        return pcmBytes;
+    }
+
+    public long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    private void append(byte[] data, int length) {
+        if (carryLength + length > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryLength + length));
+        }
+        System.arraycopy(data, 0, carry, carryLength, length);
+        carryLength += length;
+    }
+
+    // 모인 sample 을 최대 block 크기 이하의 비슷한 크기 frame 들로 나눠 encode 요청
+    private int submitFrames() {
+        int frameBytes = encoder.getFrameBytes();
+        int samples = carryLength / frameBytes;
+        if (samples == 0) {
+            return 0;
+        }
+
+        int frames = (samples + encoder.getMaxBlockSize() - 1) / encoder.getMaxBlockSize();
+        int offset = 0;
+        for (int i = 0; i < frames; i++) {
+            int blockSize = samples / frames + (i < samples % frames ? 1 : 0);
+            byte[] pcm = Arrays.copyOfRange(carry, offset, offset + blockSize * frameBytes);
+            long firstSample = nextSample;
+            pending.add(CompletableFuture.supplyAsync(() -> encoder.encodeFrame(pcm, 0, pcm.length, firstSample), executor));
+            nextSample += blockSize;
+            offset += pcm.length;
+        }
+
+        // sample 단위로 자르고 남은 byte
+        carryLength -= offset;
+        System.arraycopy(carry, offset, carry, 0, carryLength);
+        return frames;
+    }
+
+    private byte[] await(CompletableFuture<byte[]> frame) throws IOException {
+        try {
+            return frame.join();
+        } catch (CompletionException e) {
+            throw new IOException("flac encoding failed", e.getCause());
+        }
+    }
+
+    private void send(byte[] data) throws IOException {
+        if (out.capacity() < data.length) {
+            out = new AudioBuffer(Math.max(data.length, out.capacity() * 2));
+        }
+        System.arraycopy(data, 0, out.array(), 0, data.length);
+        out.setLength(data.length);
+        encodedBytes += data.length;
+        downstream.write(out);
+    }
+}
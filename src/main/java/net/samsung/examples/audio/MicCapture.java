@@ -0,0 +1,125 @@
+package net.samsung.examples.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sound.sampled.TargetDataLine;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Captures microphone audio into a preallocated {@link AudioBufferRing} on one thread
+ * and hands the buffers to an {@link AudioSink} on another. Buffers are recycled once written.
+ */
+public class MicCapture {
+    private static final Logger logger = LoggerFactory.getLogger(MicCapture.class);
+
+    private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TargetDataLine line;
+    private final AudioBufferRing ring;
+    private final AudioSink sink;
+    private final IntSupplier readBytes;
+
+    private final Thread captureThread;
+    private final Thread senderThread;
+    private volatile boolean captureDone = false;
+    private volatile long overruns = 0;
+
+    public MicCapture(TargetDataLine line, int bytesPerBuffer, int ringSize, AudioSink sink) {
+        this(line, bytesPerBuffer, ringSize, sink, r -> new Thread(r, "mic-sender"));
+    }
+
+    /**
+     * @param senderThreads creates the sender thread, e.g. a virtual thread factory.
+     *                      Capture stays on a platform thread since the line blocks in native code.
+     */
+    public MicCapture(TargetDataLine line, int bytesPerBuffer, int ringSize, AudioSink sink, ThreadFactory senderThreads) {
+        this(line, bytesPerBuffer, () -> bytesPerBuffer, ringSize, sink, senderThreads);
+    }
+
+    /**
+     * @param readBytes bytes read into each buffer, asked before every read and capped at {@code bytesPerBuffer}
+     */
+    public MicCapture(TargetDataLine line, int bytesPerBuffer, IntSupplier readBytes, int ringSize, AudioSink sink, ThreadFactory senderThreads) {
+        this.line = line;
+        this.ring = new AudioBufferRing(ringSize, bytesPerBuffer);
+        this.sink = sink;
+        this.readBytes = readBytes;
+        this.captureThread = new Thread(this::capture, "mic-capture");
+        this.senderThread = senderThreads.newThread(this::send);
+    }
+
+    public void start() {
+        senderThread.start();
+        captureThread.start();
+    }
+
+    public void stop() {
+        line.stop();
+        line.close();
+    }
+
+    public void join() throws InterruptedException {
+        captureThread.join();
+        senderThread.join();
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    private void capture() {
+        line.start();
+
+        AudioBuffer buffer = null;
+        try {
+            while (line.isOpen()) {
+                if (buffer == null) {
+                    buffer = ring.acquire(WAIT_NANOS);
+                    if (buffer == null) {
+                        // sender 가 밀리면 ring 이 비워질 때까지 대기
+                        overruns++;
+                        continue;
+                    }
+                }
+
+                int numBytesRead = line.read(buffer.array(), 0, Math.min(buffer.capacity(), readBytes.getAsInt()));
+                if (numBytesRead <= 0) {
+                    continue;
+                }
+
+                buffer.setLength(numBytesRead);
+                ring.publish(buffer);
+                buffer = null;
+            }
+        } finally {
+            captureDone = true;
+        }
+    }
+
+    private void send() {
+        try {
+            while (!captureDone || ring.hasFilled()) {
+                AudioBuffer buffer = ring.take(WAIT_NANOS);
+                if (buffer == null) {
+                    continue;
+                }
+                try {
+                    sink.write(buffer);
+                } finally {
+                    ring.recycle(buffer);
+                }
+            }
+            sink.complete();
+        } catch (Exception e) {
+            logger.error("mic sender stopped: {}", e.getMessage());
+            stop();
+        }
+
+        if (overruns > 0) {
+            logger.warn("mic capture overruns={}", overruns);
+        }
+    }
+}
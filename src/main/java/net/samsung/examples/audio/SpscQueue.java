@@ -0,0 +1,85 @@
+package net.samsung.examples.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread.
+ * Offer and poll do not allocate. A consumer waiting in {@link #poll(long)} is parked until the producer
+ * offers an item.
+ */
+public final class SpscQueue<T> {
+
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();   // next index to poll
+    private final AtomicLong tail = new AtomicLong();   // next index to offer
+    private volatile Thread waiter = null;
+
+    public SpscQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    public boolean offer(T item) {
+        long t = tail.get();
+        if (t - head.get() >= slots.length) {
+            return false;
+        }
+        slots[(int) (t & mask)] = item;
+        // waiter 를 읽기 전에 tail 이 보이도록 volatile write (consumer 는 waiter 기록 후 tail 을 다시 확인)
+        tail.set(t + 1);
+        Thread w = waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = head.get();
+        if (h >= tail.get()) {
+            return null;
+        }
+        int index = (int) (h & mask);
+        T item = (T) slots[index];
+        slots[index] = null;
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    /**
+     * Waits up to {@code timeoutNanos} for an item.
+     */
+    public T poll(long timeoutNanos) {
+        T item = poll();
+        if (item != null) {
+            return item;
+        }
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        waiter = Thread.currentThread();
+        try {
+            while ((item = poll()) == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return item;
+        } finally {
+            waiter = null;
+        }
+    }
+
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
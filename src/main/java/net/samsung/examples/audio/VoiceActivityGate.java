@@ -0,0 +1,178 @@
+package net.samsung.examples.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Energy / zero-crossing voice activity detector in front of an {@link AudioSink}, for 16-bit little-endian PCM.
+ * Silent buffers are not forwarded once {@code hangoverMs} has passed since the last voiced frame;
+ * the last {@code prerollMs} of suppressed audio is kept and sent first when speech starts again.
+ * Buffers are analysed in 10ms frames without allocation. Used from one sender thread.
+ * <p>
+ * Suppressed audio never reaches the server, so transcript timestamps skip over it.
+ */
+public class VoiceActivityGate implements AudioSink {
+    private static final Logger logger = LoggerFactory.getLogger(VoiceActivityGate.class);
+
+    private static final double FULL_SCALE_SQUARE = 32768.0 * 32768.0;
+
+    private final AudioSink downstream;
+    private final int channels;
+    private final int bytesPerSecond;
+    private final int frameBytes;
+    private final double minMeanSquare;
+    private final double maxZeroCrossingRate;
+    private final long hangoverMs;
+
+    // 최근에 버린 buffer 들, 말이 시작되면 먼저 보낸다
+    private final AudioBuffer[] preroll;
+    private int prerollHead = 0;
+    private int prerollCount = 0;
+
+    private boolean open = false;
+    private long silentMs = 0;
+
+    // metrics
+    private volatile long totalBytes = 0;
+    private volatile long suppressedBytes = 0;
+    private volatile long onsets = 0;
+
+    /**
+     * @param thresholdDb         frames below this level (dBFS) are silent
+     * @param maxZeroCrossingRate frames crossing zero more often (0..1 per sample) are treated as noise
+     * @param bufferBytes         capacity of the buffers written to this sink
+     */
+    public VoiceActivityGate(AudioSink downstream, int sampleRate, int channels, double thresholdDb, double maxZeroCrossingRate,
+                             long hangoverMs, long prerollMs, int bufferBytes) {
+        this.downstream = downstream;
+        this.channels = Math.max(1, channels);
+        this.bytesPerSecond = Math.max(1, sampleRate) * 2 * this.channels;
+        this.frameBytes = Math.max(1, sampleRate / 100) * 2 * this.channels;
+        this.minMeanSquare = FULL_SCALE_SQUARE * Math.pow(10, thresholdDb / 10);
+        this.maxZeroCrossingRate = maxZeroCrossingRate;
+        this.hangoverMs = hangoverMs;
+
+        long bufferMs = Math.max(1, bufferBytes * 1000L / bytesPerSecond);
+        int slots = (int) ((prerollMs + bufferMs - 1) / bufferMs);
+        this.preroll = new AudioBuffer[slots];
+        for (int i = 0; i < slots; i++) {
+            preroll[i] = new AudioBuffer(bufferBytes);
+        }
+    }
+
+    @Override
+    public void write(AudioBuffer buffer) throws IOException {
+        int length = buffer.length();
+        totalBytes += length;
+
+        if (isVoiced(buffer.array(), length)) {
+            silentMs = 0;
+            if (!open) {
+                open = true;
+                onsets++;
+                flushPreroll();
+            }
+            downstream.write(buffer);
+            return;
+        }
+
+        silentMs += length * 1000L / bytesPerSecond;
+        if (open && silentMs <= hangoverMs) {
+            downstream.write(buffer);
+            return;
+        }
+
+        open = false;
+        suppressedBytes += length;
+        keep(buffer);
+    }
+
+    @Override
+    public void complete() throws IOException {
+        logger.info("voice activity gate {}", getStats());
+        downstream.complete();
+    }
+
+    // 10ms frame 중 하나라도 음성이면 buffer 전체를 음성으로 본다
+    private boolean isVoiced(byte[] data, int length) {
+        int step = 2 * channels;
+        for (int frame = 0; frame + step <= length; frame += frameBytes) {
+            int end = Math.min(length, frame + frameBytes);
+            long sumSquares = 0;
+            int samples = 0;
+            int crossings = 0;
+            int previous = (short) ((data[frame] & 0xff) | (data[frame + 1] << 8));
+
+            for (int i = frame; i + 1 < end; i += 2) {
+                int sample = (short) ((data[i] & 0xff) | (data[i + 1] << 8));
+                sumSquares += (long) sample * sample;
+                samples++;
+            }
+            // zero crossing 은 첫 channel 만 센다
+            for (int i = frame; i + 1 < end; i += step) {
+                int sample = (short) ((data[i] & 0xff) | (data[i + 1] << 8));
+                if ((sample ^ previous) < 0) {
+                    crossings++;
+                }
+                previous = sample;
+            }
+
+            int frameSamples = Math.max(1, (end - frame) / step);
+            if ((double) sumSquares / samples >= minMeanSquare && (double) crossings / frameSamples <= maxZeroCrossingRate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void keep(AudioBuffer buffer) {
+        if (preroll.length == 0) {
+            return;
+        }
+        int slot = (prerollHead + prerollCount) % preroll.length;
+        if (prerollCount == preroll.length) {
+            prerollHead = (prerollHead + 1) % preroll.length;
+        } else {
+            prerollCount++;
+        }
+        AudioBuffer copy = preroll[slot];
+        int length = Math.min(buffer.length(), copy.capacity());
+        System.arraycopy(buffer.array(), 0, copy.array(), 0, length);
+        copy.setLength(length);
+    }
+
+    private void flushPreroll() throws IOException {
+        while (prerollCount > 0) {
+            AudioBuffer buffer = preroll[prerollHead];
+            suppressedBytes -= buffer.length();
+            downstream.write(buffer);
+            prerollHead = (prerollHead + 1) % preroll.length;
+            prerollCount--;
+        }
+        prerollHead = 0;
+    }
+
+    // metrics
+
+    public long getTotalMs() {
+        return totalBytes * 1000 / bytesPerSecond;
+    }
+
+    public long getSuppressedMs() {
+        return suppressedBytes * 1000 / bytesPerSecond;
+    }
+
+    public long getOnsets() {
+        return onsets;
+    }
+
+    public String getStats() {
+        long total = totalBytes;
+        long suppressed = suppressedBytes;
+        return String.format("totalMs=%d suppressedMs=%d suppressed=%.1f%% onsets=%d",
+                total * 1000 / bytesPerSecond, suppressed * 1000 / bytesPerSecond,
+                total > 0 ? suppressed * 100.0 / total : 0.0, onsets);
+    }
+}
@@ -0,0 +1,89 @@
+package net.samsung.examples.connector;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Reads an audio file as a sequence of ByteString chunks.
+ */
+public final class AudioFileReader {
+
+    // Files larger than this are mapped window by window.
+    private static final long MAX_WINDOW_SIZE = 1024L * 1024 * 1024;
+
+    private AudioFileReader() {
+    }
+
+    /**
+     * @param memoryMap true to map the file and wrap slices of the mapping without copying.
+     *                  The chunks then stay valid only as long as the mapping is reachable.
+     */
+    public static long readChunks(String fileName, int chunkSize, boolean memoryMap, Consumer<ByteString> consumer) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive : " + chunkSize);
+        }
+        return readChunks(fileName, () -> chunkSize, chunkSize, memoryMap, consumer);
+    }
+
+    /**
+     * Reads chunks whose size is asked from {@code chunkSize} before each chunk.
+     *
+     * @param maxChunkSize largest size {@code chunkSize} returns
+     */
+    public static long readChunks(String fileName, IntSupplier chunkSize, int maxChunkSize, boolean memoryMap, Consumer<ByteString> consumer) throws IOException {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException("maxChunkSize must be positive : " + maxChunkSize);
+        }
+        return memoryMap ? readMapped(fileName, chunkSize, maxChunkSize, consumer) : readCopied(fileName, chunkSize, maxChunkSize, consumer);
+    }
+
+    private static int nextSize(IntSupplier chunkSize, int maxChunkSize) {
+        return Math.max(1, Math.min(chunkSize.getAsInt(), maxChunkSize));
+    }
+
+    private static long readMapped(String fileName, IntSupplier chunkSize, int maxChunkSize, Consumer<ByteString> consumer) throws IOException {
+        long total = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowSize = Math.max(maxChunkSize, (MAX_WINDOW_SIZE / maxChunkSize) * maxChunkSize);
+
+            for (long windowStart = 0; windowStart < size; windowStart += windowSize) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, size - windowStart));
+                while (window.hasRemaining()) {
+                    int length = Math.min(nextSize(chunkSize, maxChunkSize), window.remaining());
+                    ByteBuffer slice = window.slice();
+                    slice.limit(length);
+                    window.position(window.position() + length);
+
+                    consumer.accept(UnsafeByteOperations.unsafeWrap(slice));
+                    total += length;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long readCopied(String fileName, IntSupplier chunkSize, int maxChunkSize, Consumer<ByteString> consumer) throws IOException {
+        long total = 0;
+        try (final FileInputStream fileStream = new FileInputStream(fileName)) {
+            byte[] buffer = new byte[maxChunkSize];
+
+            int bytesRead;
+            while ((bytesRead = fileStream.read(buffer, 0, nextSize(chunkSize, maxChunkSize))) != -1) {
+                consumer.accept(ByteString.copyFrom(buffer, 0, bytesRead));
+                total += bytesRead;
+            }
+        }
+        return total;
+    }
+}
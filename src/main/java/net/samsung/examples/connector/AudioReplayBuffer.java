@@ -0,0 +1,77 @@
+package net.samsung.examples.connector;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Ring of the most recently sent audio, addressed by the absolute byte position in the stream.
+ * Thread-safe.
+ */
+public class AudioReplayBuffer {
+
+    public interface ChunkConsumer {
+        /**
+         * @param data slice of the ring, valid only during the call
+         */
+        void accept(byte[] data, int offset, int length);
+    }
+
+    private final byte[] ring;
+    private long totalBytes = 0;
+
+    public AudioReplayBuffer(int capacity) {
+        this.ring = new byte[Math.max(1, capacity)];
+    }
+
+    public synchronized void append(byte[] data, int offset, int length) {
+        // ring 보다 긴 입력은 뒷부분만 남는다
+        if (length > ring.length) {
+            offset += length - ring.length;
+            totalBytes += length - ring.length;
+            length = ring.length;
+        }
+        int position = (int) (totalBytes % ring.length);
+        int first = Math.min(length, ring.length - position);
+        System.arraycopy(data, offset, ring, position, first);
+        System.arraycopy(data, offset + first, ring, 0, length - first);
+        totalBytes += length;
+    }
+
+    public synchronized void append(ByteBuffer data) {
+        ByteBuffer source = data.duplicate();
+        if (source.hasArray()) {
+            append(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            return;
+        }
+        byte[] copy = new byte[source.remaining()];
+        source.get(copy);
+        append(copy, 0, copy.length);
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Oldest byte position still held.
+     */
+    public synchronized long getOldestBytes() {
+        return Math.max(0, totalBytes - ring.length);
+    }
+
+    /**
+     * Passes the audio from {@code from} to the end in chunks of at most {@code chunkSize}.
+     *
+     * @return the position replay actually started at, later than {@code from} when that audio was overwritten
+     */
+    public synchronized long replay(long from, int chunkSize, ChunkConsumer consumer) {
+        long position = Math.max(from, getOldestBytes());
+        long start = position;
+        while (position < totalBytes) {
+            int index = (int) (position % ring.length);
+            int length = (int) Math.min(Math.min(chunkSize, totalBytes - position), ring.length - index);
+            consumer.accept(ring, index, length);
+            position += length;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,188 @@
+package net.samsung.examples.connector;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import lombok.Value;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits an interleaved multi-channel PCM or WAV file into one mono stream per channel.
+ */
+public final class ChannelSplitter {
+
+    public interface ChannelConsumer {
+        void accept(int channel, ByteString audio);
+    }
+
+    /**
+     * Where the samples are in the file and how they are encoded.
+     */
+    @Value
+    public static class Layout {
+        String format;
+        int sampleRate;
+        int channels;
+        long dataOffset;
+        long dataLength;
+
+        public int getBytesPerSample() {
+            return PcmFormat.bytesPerSample(format);
+        }
+    }
+
+    private ChannelSplitter() {
+    }
+
+    /**
+     * Reads the WAV header, or describes a raw PCM file with the given parameters.
+     *
+     * @return null when the file is neither WAV nor raw PCM and cannot be split locally
+     */
+    public static Layout probe(String fileName, String format, int sampleRate, int channels) throws IOException {
+        try (FileChannel file = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(file, header, 0);
+            if (header.getInt(0) == 0x46464952 && header.getInt(8) == 0x45564157) {   // "RIFF" ... "WAVE"
+                return readWav(file);
+            }
+            if (PcmFormat.bytesPerSample(format) == 0 || sampleRate <= 0) {
+                return null;
+            }
+            return new Layout(format, sampleRate, Math.max(1, channels), 0, file.size());
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Passes the audio of every channel in chunks of {@code chunkFrames} samples, channel 0 first.
+     *
+     * @return bytes read from the file
+     */
+    public static long split(String fileName, Layout layout, int chunkFrames, ChannelConsumer consumer) throws IOException {
+        int sampleBytes = layout.getBytesPerSample();
+        int channels = layout.getChannels();
+        int frameBytes = sampleBytes * channels;
+        int frames = Math.max(1, chunkFrames);
+
+        long total = 0;
+        try (FileChannel file = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer interleaved = ByteBuffer.allocate(frames * frameBytes);
+            long position = layout.getDataOffset();
+            long end = Math.min(file.size(), layout.getDataOffset() + layout.getDataLength());
+
+            while (position < end) {
+                interleaved.clear();
+                interleaved.limit((int) Math.min(interleaved.capacity(), end - position));
+                while (interleaved.hasRemaining()) {
+                    int read = file.read(interleaved, position + interleaved.position());
+                    if (read < 0) {
+                        break;
+                    }
+                }
+                int length = interleaved.position();
+                position += length;
+                total += length;
+
+                // 마지막 불완전한 frame 은 버린다
+                int count = length / frameBytes;
+                if (count == 0) {
+                    break;
+                }
+                byte[] data = interleaved.array();
+                for (int channel = 0; channel < channels; channel++) {
+                    byte[] mono = new byte[count * sampleBytes];
+                    int source = channel * sampleBytes;
+                    for (int target = 0; target < mono.length; target += sampleBytes, source += frameBytes) {
+                        System.arraycopy(data, source, mono, target, sampleBytes);
+                    }
+                    consumer.accept(channel, UnsafeByteOperations.unsafeWrap(mono));
+                }
+            }
+        }
+        return total;
+    }
+
+    // fmt chunk 로 format 을, data chunk 로 sample 위치를 찾는다
+    private static Layout readWav(FileChannel file) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        String format = null;
+        int sampleRate = 0;
+        int channels = 0;
+
+        long position = 12;
+        while (position + 8 <= file.size()) {
+            chunk.clear().limit(8);
+            readFully(file, chunk, position);
+            int id = chunk.getInt(0);
+            long size = chunk.getInt(4) & 0xffffffffL;
+            position += 8;
+
+            if (id == 0x20746d66) {   // "fmt "
+                chunk.clear().limit(16);
+                readFully(file, chunk, position);
+                int audioFormat = chunk.getShort(0) & 0xffff;
+                channels = chunk.getShort(2) & 0xffff;
+                sampleRate = chunk.getInt(4);
+                int bits = chunk.getShort(14) & 0xffff;
+                format = pcmFormat(audioFormat, bits);
+                if (format == null) {
+                    return null;
+                }
+            } else if (id == 0x61746164) {   // "data"
+                if (format == null) {
+                    return null;
+                }
+                // streaming 으로 기록된 WAV 는 길이가 0 이나 최대값인 경우가 있다
+                long length = size == 0 || size == 0xffffffffL ? file.size() - position : Math.min(size, file.size() - position);
+                return new Layout(format, sampleRate, channels, position, length);
+            }
+            position += size + (size & 1);
+        }
+        return null;
+    }
+
+    private static String pcmFormat(int audioFormat, int bits) {
+        if (audioFormat == 0xfffe) {
+            // WAVE_FORMAT_EXTENSIBLE 은 integer PCM 으로 본다
+            audioFormat = 1;
+        }
+        if (audioFormat == 1) {
+            switch (bits) {
+                case 8:
+                    return "pcm_u8";
+                case 16:
+                    return "pcm_s16le";
+                case 24:
+                    return "pcm_s24le";
+                case 32:
+                    return "pcm_s32le";
+                default:
+                    return null;
+            }
+        } else if (audioFormat == 3) {
+            return bits == 64 ? "pcm_f64le" : bits == 32 ? "pcm_f32le" : null;
+        } else if (audioFormat == 6) {
+            return "pcm_alaw";
+        } else if (audioFormat == 7) {
+            return "pcm_mulaw";
+        }
+        return null;
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = file.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package net.samsung.examples.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chunk size of one stream under a {@link ChunkingPolicy}. Sizes are whole sample frames.
+ * Senders read {@link #getChunkBytes()} before each chunk and report it with {@link #audioSent(long)};
+ * the connector reports {@code final_proc_time_ms} of each result with {@link #result(long)}.
+ */
+public class ChunkSizer {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkSizer.class);
+
+    // 결과 몇 개로 판단하지 않도록 조정 사이에 두는 간격
+    private static final long ADJUST_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ChunkingPolicy policy;
+    private final int bytesPerSecond;
+    private final int frameBytes;
+    private final int minBytes;
+    private final int maxBytes;
+
+    private final AtomicLong sentBytes = new AtomicLong();
+    private volatile int chunkBytes;
+    private volatile long lastAdjustNanos = System.nanoTime();
+
+    ChunkSizer(ChunkingPolicy policy, int bytesPerSecond, int frameBytes, boolean lowLatency) {
+        this.policy = policy;
+        this.bytesPerSecond = bytesPerSecond;
+        this.frameBytes = Math.max(1, frameBytes);
+
+        if (bytesPerSecond <= 0 || policy.getMode() == ChunkingPolicy.Mode.FIXED_BYTES) {
+            this.minBytes = align(policy.getFixedBytes());
+            this.maxBytes = minBytes;
+            this.chunkBytes = minBytes;
+        } else if (policy.getMode() == ChunkingPolicy.Mode.FIXED_MS) {
+            this.minBytes = align(toBytes(policy.getFixedMs()));
+            this.maxBytes = minBytes;
+            this.chunkBytes = minBytes;
+        } else {
+            int max = align(Math.min(toBytes(policy.getMaxMs()), policy.getMaxBytes()));
+            int floor = Math.min(max, align(toBytes(lowLatency ? policy.getMinMs() : ChunkingPolicy.DEFAULT_MS)));
+            this.minBytes = floor;
+            this.maxBytes = max;
+            this.chunkBytes = floor;
+        }
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    /**
+     * Largest chunk this sizer returns, for preallocating buffers.
+     */
+    public int getMaxChunkBytes() {
+        return maxBytes;
+    }
+
+    public long getChunkMs() {
+        return bytesPerSecond > 0 ? chunkBytes * 1000L / bytesPerSecond : 0;
+    }
+
+    public void audioSent(long bytes) {
+        sentBytes.addAndGet(bytes);
+    }
+
+    /**
+     * @param finalProcTimeMs audio time up to which the server has finalized the results
+     */
+    public void result(long finalProcTimeMs) {
+        if (policy.getMode() != ChunkingPolicy.Mode.ADAPTIVE || minBytes == maxBytes) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastAdjustNanos < ADJUST_INTERVAL_NANOS) {
+            return;
+        }
+
+        long lagMs = sentBytes.get() * 1000 / bytesPerSecond - finalProcTimeMs;
+        int current = chunkBytes;
+        int next = current;
+        // chunk 하나 만큼은 늘 밀려 있으므로 그만큼 빼고 판단
+        long queuedLagMs = lagMs - current * 1000L / bytesPerSecond;
+        if (queuedLagMs > policy.getTargetLagMs()) {
+            next = Math.min(maxBytes, align(current * 2));
+        } else if (queuedLagMs < policy.getTargetLagMs() / 2) {
+            next = Math.max(minBytes, align(current / 2));
+        }
+
+        lastAdjustNanos = now;
+        if (next != current) {
+            chunkBytes = next;
+            logger.debug("chunk size {} -> {} bytes lagMs={}", current, next, lagMs);
+        }
+    }
+
+    private int toBytes(long ms) {
+        return (int) Math.min(Integer.MAX_VALUE, ms * bytesPerSecond / 1000);
+    }
+
+    private int align(int bytes) {
+        return Math.max(frameBytes, bytes / frameBytes * frameBytes);
+    }
+}
@@ -0,0 +1,45 @@
+package net.samsung.examples.connector;
+
+import lombok.Value;
+
+/**
+ * How much audio goes into one request.
+ * {@link Mode#ADAPTIVE} starts at {@code minMs} with low latency models (250ms otherwise) and doubles the chunk,
+ * up to {@code maxMs} and {@code maxBytes}, while final_proc_time_ms lags the audio sent by more than
+ * {@code targetLagMs}; it shrinks back once the lag is below the target.
+ * Formats without a fixed byte rate always use {@code fixedBytes}.
+ */
+@Value
+public class ChunkingPolicy {
+
+    public enum Mode {
+        FIXED_MS,
+        FIXED_BYTES,
+        ADAPTIVE
+    }
+
+    public static final int DEFAULT_MS = 250;
+
+    Mode mode;
+    int fixedMs;
+    int fixedBytes;
+    int minMs;
+    int maxMs;
+    int maxBytes;
+    long targetLagMs;
+
+    public static ChunkingPolicy fixedMs(int ms) {
+        return new ChunkingPolicy(Mode.FIXED_MS, ms, 64 * 1024, ms, ms, Integer.MAX_VALUE, 0);
+    }
+
+    public static ChunkingPolicy fixedBytes(int bytes) {
+        return new ChunkingPolicy(Mode.FIXED_BYTES, DEFAULT_MS, bytes, 0, 0, bytes, 0);
+    }
+
+    /**
+     * @param lowLatency true when a {@code _lowlatency} model is used
+     */
+    public ChunkSizer newSizer(int bytesPerSecond, int frameBytes, boolean lowLatency) {
+        return new ChunkSizer(this, bytesPerSecond, frameBytes, lowLatency);
+    }
+}
@@ -0,0 +1,130 @@
+package net.samsung.examples.connector;
+
+import lombok.Value;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Transcription config of one recognition profile, built once and shared by every session opened with it.
+ * Boost words are parsed once per profile, and the protobuf config (whose serialized size protobuf memoizes)
+ * and the WebSocket start request are reused as they are.
+ * With a speech context name the config only references the context; its entries are kept on the server.
+ */
+public final class ConfigTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigTemplate.class);
+
+    private static final ConcurrentMap<Profile, ConfigTemplate> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Everything a config is built from. Equal profiles share one template.
+     */
+    @Value
+    public static class Profile {
+        String languageCode;
+        boolean useLowLatency;
+        String format;
+        int sampleRate;
+        int channels;
+        boolean isStream;
+        boolean speakerDiarization;
+        int minSpeaker;
+        int maxSpeaker;
+        String boostWords;
+        int defaultBoostAmount;
+        boolean nonFinal;
+        /** server side speech context holding the boost words, empty to send them with every session */
+        String speechContextName;
+    }
+
+    private final Profile profile;
+    private final SpeechServiceOuterClass.SpeechContext speechContext;
+    private final SpeechServiceOuterClass.TranscriptionConfig config;
+    private final ConcurrentMap<String, String> webSocketStarts = new ConcurrentHashMap<>();
+
+    private ConfigTemplate(Profile profile) {
+        this.profile = profile;
+
+        SpeechServiceOuterClass.TranscriptionConfig.Builder builder = SonioxASRConnector.getConfigBuilder(
+                profile.getLanguageCode(), profile.isUseLowLatency(), profile.getFormat(), profile.getSampleRate(), profile.getChannels(),
+                profile.isStream(), profile.isSpeakerDiarization(), profile.getMinSpeaker(), profile.getMaxSpeaker(),
+                profile.getBoostWords(), profile.getDefaultBoostAmount(), profile.isNonFinal());
+
+        if (builder.hasSpeechContext() && isNamed(profile)) {
+            this.speechContext = builder.getSpeechContext().toBuilder().setName(profile.getSpeechContextName()).build();
+            builder.setSpeechContext(SpeechServiceOuterClass.SpeechContext.newBuilder().setName(profile.getSpeechContextName()));
+        } else {
+            this.speechContext = builder.hasSpeechContext() ? builder.getSpeechContext() : null;
+        }
+        this.config = builder.build();
+        logger.debug("config template built model={} boostEntries={} context={}",
+                config.getModel(), speechContext == null ? 0 : speechContext.getEntriesCount(), profile.getSpeechContextName());
+    }
+
+    public static ConfigTemplate of(Profile profile) {
+        return CACHE.computeIfAbsent(profile, ConfigTemplate::new);
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public SpeechServiceOuterClass.TranscriptionConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Boost words with the context name when they are kept on the server, otherwise null.
+     */
+    public SpeechServiceOuterClass.SpeechContext getNamedSpeechContext() {
+        return speechContext != null && isNamed(profile) ? speechContext : null;
+    }
+
+    /**
+     * Start request of the WebSocket API. Boost words are always sent inline there.
+     */
+    public String getWebSocketStart(String apiKey) {
+        return webSocketStarts.computeIfAbsent(apiKey, this::buildWebSocketStart);
+    }
+
+    private String buildWebSocketStart(String apiKey) {
+        JSONObject request = new JSONObject();
+        request.put("api_key", apiKey);
+        request.put("audio_format", profile.getFormat());
+        // gRPC config 와 같이 0 이면 보내지 않음 (flac 등은 stream header 에서 읽음)
+        if (profile.getSampleRate() != 0) {
+            request.put("sample_rate_hertz", profile.getSampleRate());
+        }
+        if (profile.getChannels() != 0) {
+            request.put("num_audio_channels", profile.getChannels());
+        }
+        request.put("include_nonfinal", profile.isNonFinal());
+        request.put("min_num_speakers", profile.getMinSpeaker());
+        request.put("max_num_speakers", profile.getMaxSpeaker());
+        request.put("enable_streaming_speaker_diarization", profile.isSpeakerDiarization());
+        request.put("model", SonioxASRConnector.getDefaultModel(profile.getLanguageCode(), profile.isUseLowLatency()));
+
+        String boostWords = profile.getBoostWords();
+        if (boostWords != null && !boostWords.isEmpty()) {
+            SpeechServiceOuterClass.SpeechContext context = speechContext != null
+                    ? speechContext : SonioxASRConnector.getSpeechContexts(boostWords.split(","), profile.getDefaultBoostAmount());
+            JSONArray entries = new JSONArray();
+            for (SpeechServiceOuterClass.SpeechContextEntry entry : context.getEntriesList()) {
+                entries.put(new JSONObject()
+                        .put("phrases", new JSONArray(entry.getPhrasesList()))
+                        .put("boost", entry.getBoost()));
+            }
+            request.put("speech_context", new JSONObject().put("entries", entries));
+        }
+        return request.toString();
+    }
+
+    private static boolean isNamed(Profile profile) {
+        return profile.getSpeechContextName() != null && !profile.getSpeechContextName().isEmpty();
+    }
+}
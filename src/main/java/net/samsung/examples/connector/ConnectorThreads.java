@@ -0,0 +1,148 @@
+package net.samsung.examples.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Threads used by the connectors.
+ * HttpClient and gRPC callbacks share one bounded pool of platform threads; callbacks must not block.
+ * Per-session work that blocks (audio senders, file readers, load workers) runs on its own thread,
+ * a virtual thread in {@link Mode#VIRTUAL} so that idle sessions do not hold a platform thread each.
+ * CPU bound audio encoding of all sessions shares one pool sized to the cores.
+ */
+public final class ConnectorThreads {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectorThreads.class);
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public static final int DEFAULT_CALLBACK_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static ConnectorThreads shared;
+
+    private final Mode mode;
+    private final ExecutorService callbackExecutor;
+    private final ExecutorService encoderExecutor;
+
+    public ConnectorThreads(Mode mode, int callbackThreads) {
+        if (callbackThreads <= 0) {
+            throw new IllegalArgumentException("callbackThreads must be positive");
+        }
+        this.mode = mode;
+        this.callbackExecutor = Executors.newFixedThreadPool(callbackThreads,
+                Thread.ofPlatform().name("soniox-callback-", 1).daemon(true).factory());
+        this.encoderExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                Thread.ofPlatform().name("audio-encoder-", 1).daemon(true).factory());
+    }
+
+    /**
+     * The threads of the connectors, created with the default settings on first use.
+     *
+     * @throws IllegalStateException once the shared threads are shut down, until {@link #configure} replaces them
+     */
+    public static synchronized ConnectorThreads shared() {
+        if (shared == null) {
+            shared = new ConnectorThreads(Mode.VIRTUAL, DEFAULT_CALLBACK_THREADS);
+        }
+        if (shared.callbackExecutor.isShutdown()) {
+            throw new IllegalStateException("shared connector threads are shut down");
+        }
+        return shared;
+    }
+
+    /**
+     * Shuts down the shared threads if they were created, see {@link #shutdown(long)}.
+     *
+     * @return true if all tasks finished in time, or nothing was created
+     */
+    public static boolean shutdownShared(long timeoutMs) throws InterruptedException {
+        ConnectorThreads threads;
+        synchronized (ConnectorThreads.class) {
+            threads = shared;
+        }
+        return threads == null || threads.shutdown(timeoutMs);
+    }
+
+    /**
+     * Replaces the shared settings. Callbacks already queued on the previous pool still run.
+     */
+    public static synchronized void configure(Mode mode, int callbackThreads) {
+        ConnectorThreads previous = shared;
+        shared = new ConnectorThreads(mode, callbackThreads);
+        if (previous != null) {
+            previous.callbackExecutor.shutdown();
+            previous.encoderExecutor.shutdown();
+        }
+        logger.info("connector threads mode={} callbackThreads={}", mode, callbackThreads);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Bounded executor for HttpClient and gRPC callbacks.
+     */
+    public ExecutorService getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * Executor for audio encoding, tasks must not block.
+     */
+    public ExecutorService getEncoderExecutor() {
+        return encoderExecutor;
+    }
+
+    /**
+     * Factory of per-session threads named {@code name-N}. Platform threads are daemons.
+     */
+    public ThreadFactory sessionThreads(String name) {
+        return mode == Mode.VIRTUAL
+                ? Thread.ofVirtual().name(name + "-", 1).factory()
+                : Thread.ofPlatform().name(name + "-", 1).daemon(true).factory();
+    }
+
+    /**
+     * Starts one task per thread, without a limit on the number of threads.
+     */
+    public ExecutorService newSessionExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(sessionThreads(name));
+    }
+
+    public Thread startSessionThread(String name, Runnable task) {
+        return mode == Mode.VIRTUAL
+                ? Thread.ofVirtual().name(name).start(task)
+                : Thread.ofPlatform().name(name).daemon(true).start(task);
+    }
+
+    /**
+     * Stops accepting callbacks and encoding tasks and waits, within one deadline, for the queued ones to finish.
+     *
+     * @return true if all callbacks and encoding tasks finished in time
+     */
+    public boolean shutdown(long timeoutMs) throws InterruptedException {
+        encoderExecutor.shutdown();
+        callbackExecutor.shutdown();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        boolean terminated = awaitTermination(callbackExecutor, "callbacks", deadline, timeoutMs);
+        terminated &= awaitTermination(encoderExecutor, "encoder tasks", deadline, timeoutMs);
+        return terminated;
+    }
+
+    private static boolean awaitTermination(ExecutorService executor, String name, long deadline, long timeoutMs) throws InterruptedException {
+        if (executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        logger.warn("{} still running after {}ms", name, timeoutMs);
+        executor.shutdownNow();
+        return false;
+    }
+}
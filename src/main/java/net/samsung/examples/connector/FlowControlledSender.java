@@ -0,0 +1,320 @@
+package net.samsung.examples.connector;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import net.samsung.examples.metrics.MetricsRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Outbound queue of a client stream that only writes while the transport {@code isReady()}.
+ * The queue is bounded by bytes; a single message larger than the bound is always accepted.
+ */
+public class FlowControlledSender<T> {
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP_OLDEST,
+        FAIL
+    }
+
+    private final long maxQueuedBytes;
+    private final OverflowPolicy policy;
+    private final ToIntFunction<T> sizer;
+
+    private final ArrayDeque<T> queue = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Object drainLock = new Object();
+
+    private volatile ClientCallStreamObserver<T> observer = null;
+    private volatile Runnable onFirstReady = null;
+    private volatile LongConsumer onStallMs = null;
+    private boolean ready = false;
+    private long queuedBytes = 0;
+    private boolean completeRequested = false;
+    private boolean completed = false;
+    private boolean closed = false;
+
+    // metrics
+    private long maxQueuedBytesSeen = 0;
+    private int maxQueueDepth = 0;
+    private long droppedCount = 0;
+    private long stallCount = 0;
+    private long stallNanos = 0;
+    private long maxStallNanos = 0;
+    private final LongAdder globalQueuedBytes = MetricsRegistry.shared().getQueuedBytes();
+
+    /**
+     * @param sizer byte size of a message; messages of size 0 are never dropped
+     */
+    public FlowControlledSender(long maxQueuedBytes, OverflowPolicy policy, ToIntFunction<T> sizer) {
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.policy = policy;
+        this.sizer = sizer;
+    }
+
+    /**
+     * Must be called from {@code ClientResponseObserver.beforeStart()}.
+     */
+    public void attach(ClientCallStreamObserver<T> observer) {
+        this.observer = observer;
+        observer.setOnReadyHandler(this::drain);
+    }
+
+    /**
+     * Called once, the first time the transport is ready to take messages.
+     */
+    public void setOnFirstReady(Runnable onFirstReady) {
+        this.onFirstReady = onFirstReady;
+    }
+
+    /**
+     * Called with the blocked time in ms whenever {@link #send(Object)} had to wait for queue space.
+     */
+    public void setOnStall(LongConsumer onStallMs) {
+        this.onStallMs = onStallMs;
+    }
+
+    public void send(T item) {
+        int size = sizer.applyAsInt(item);
+        long stalled = 0;
+
+        lock.lock();
+        try {
+            checkOpen();
+
+            long stallStart = 0;
+            while (queuedBytes > 0 && queuedBytes + size > maxQueuedBytes) {
+                if (policy == OverflowPolicy.FAIL) {
+                    throw new IllegalStateException("send queue is full queued=" + queuedBytes + " max=" + maxQueuedBytes);
+                } else if (policy == OverflowPolicy.DROP_OLDEST) {
+                    if (!dropOldest()) {
+                        break;
+                    }
+                } else {
+                    if (stallStart == 0) {
+                        stallStart = System.nanoTime();
+                    }
+                    try {
+                        notFull.await(100, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("interrupted while waiting for send queue", e);
+                    }
+                    checkOpen();
+                }
+            }
+            if (stallStart != 0) {
+                stalled = System.nanoTime() - stallStart;
+                stallCount++;
+                stallNanos += stalled;
+                maxStallNanos = Math.max(maxStallNanos, stalled);
+            }
+
+            queue.addLast(item);
+            queuedBytes += size;
+            globalQueuedBytes.add(size);
+            maxQueuedBytesSeen = Math.max(maxQueuedBytesSeen, queuedBytes);
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        } finally {
+            lock.unlock();
+        }
+
+        LongConsumer stallListener = onStallMs;
+        if (stalled != 0 && stallListener != null) {
+            stallListener.accept(TimeUnit.NANOSECONDS.toMillis(stalled));
+        }
+
+        drain();
+    }
+
+    /**
+     * Half-closes the stream once every queued message is written.
+     */
+    public void complete() {
+        lock.lock();
+        try {
+            checkOpen();
+            completeRequested = true;
+        } finally {
+            lock.unlock();
+        }
+
+        drain();
+    }
+
+    public void cancel(String reason) {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            globalQueuedBytes.add(-queuedBytes);
+            queuedBytes = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        synchronized (drainLock) {
+            if (observer != null && !completed) {
+                completed = true;
+                observer.cancel(reason, null);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting messages after the call has terminated.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            globalQueuedBytes.add(-queuedBytes);
+            queuedBytes = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        ClientCallStreamObserver<T> target = observer;
+        if (target == null) {
+            return;
+        }
+
+        synchronized (drainLock) {
+            if (completed) {
+                return;
+            }
+
+            if (!ready && target.isReady()) {
+                ready = true;
+                Runnable firstReady = onFirstReady;
+                if (firstReady != null) {
+                    firstReady.run();
+                }
+            }
+
+            while (target.isReady()) {
+                T item;
+                lock.lock();
+                try {
+                    item = queue.pollFirst();
+                    if (item != null) {
+                        int size = sizer.applyAsInt(item);
+                        queuedBytes -= size;
+                        globalQueuedBytes.add(-size);
+                        notFull.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (item == null) {
+                    break;
+                }
+                target.onNext(item);
+            }
+
+            boolean drained;
+            lock.lock();
+            try {
+                drained = completeRequested && queue.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+            if (drained) {
+                completed = true;
+                target.onCompleted();
+            }
+        }
+    }
+
+    private boolean dropOldest() {
+        Iterator<T> it = queue.iterator();
+        while (it.hasNext()) {
+            int size = sizer.applyAsInt(it.next());
+            if (size > 0) {
+                it.remove();
+                queuedBytes -= size;
+                globalQueuedBytes.add(-size);
+                droppedCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkOpen() {
+        if (closed || completeRequested) {
+            throw new IllegalStateException("sender is closed");
+        }
+    }
+
+    // metrics
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getQueuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getStats() {
+        lock.lock();
+        try {
+            return String.format("depth=%d maxDepth=%d queuedBytes=%d maxQueuedBytes=%d dropped=%d stalls=%d stallMs=%d maxStallMs=%d",
+                    queue.size(), maxQueueDepth, queuedBytes, maxQueuedBytesSeen, droppedCount,
+                    stallCount, TimeUnit.NANOSECONDS.toMillis(stallNanos), TimeUnit.NANOSECONDS.toMillis(maxStallNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getStallCount() {
+        lock.lock();
+        try {
+            return stallCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getStallTimeMs() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(stallNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package net.samsung.examples.connector;
+
+/**
+ * Byte sizes of raw PCM audio formats. Compressed or unknown formats have no fixed byte rate and return 0.
+ */
+public final class PcmFormat {
+
+    private PcmFormat() {
+    }
+
+    public static int bytesPerSample(String format) {
+        if (format == null || !format.startsWith("pcm_")) {
+            return 0;
+        }
+        if (format.startsWith("pcm_s8") || format.startsWith("pcm_u8") || format.equals("pcm_alaw") || format.equals("pcm_mulaw")) {
+            return 1;
+        } else if (format.startsWith("pcm_s24") || format.startsWith("pcm_u24")) {
+            return 3;
+        } else if (format.startsWith("pcm_s32") || format.startsWith("pcm_u32") || format.startsWith("pcm_f32")) {
+            return 4;
+        } else if (format.startsWith("pcm_f64")) {
+            return 8;
+        }
+        return 2;
+    }
+
+    /**
+     * Bytes of one sample over all channels, 0 when unknown.
+     */
+    public static int frameBytes(String format, int channels) {
+        return bytesPerSample(format) * Math.max(1, channels);
+    }
+
+    public static int bytesPerSecond(String format, int sampleRate, int channels) {
+        return sampleRate > 0 ? frameBytes(format, channels) * sampleRate : 0;
+    }
+}
@@ -0,0 +1,50 @@
+package net.samsung.examples.connector;
+
+import io.grpc.Status;
+import lombok.Value;
+
+/**
+ * When and how a broken stream is reopened. {@code maxRetries} 0 disables reconnecting.
+ */
+@Value
+public class ReconnectPolicy {
+
+    int maxRetries;
+    long initialBackoffMs;
+    long maxBackoffMs;
+    /** audio kept for replay after a reconnect */
+    long replayMs;
+
+    public static ReconnectPolicy disabled() {
+        return new ReconnectPolicy(0, 0, 0, 0);
+    }
+
+    public boolean isEnabled() {
+        return maxRetries > 0;
+    }
+
+    /**
+     * @param attempt 1 for the first retry
+     */
+    public long backoffMs(int attempt) {
+        long backoff = initialBackoffMs << Math.min(Math.max(0, attempt - 1), 20);
+        return Math.min(Math.max(0, backoff), maxBackoffMs);
+    }
+
+    /**
+     * Transport and server side failures are retried; request and credential errors are not.
+     */
+    public static boolean isRetryable(Throwable t) {
+        switch (Status.fromThrowable(t).getCode()) {
+            case UNAVAILABLE:
+            case UNKNOWN:
+            case INTERNAL:
+            case ABORTED:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package net.samsung.examples.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reconnect bookkeeping of one stream, shared by the gRPC and WebSocket connectors.
+ * Sent audio is kept in an {@link AudioReplayBuffer}; on reconnect the audio after the last final processing time
+ * is replayed and times of the new connection are shifted by {@link #getOffsetMs()} onto the original timeline.
+ * After a reconnect, final words already delivered on the same channel are reported as repeated.
+ */
+class ReplayTimeline {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayTimeline.class);
+
+    private static final int REPLAY_CHUNK_SIZE = 64 * 1024;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "soniox-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReconnectPolicy policy;
+    private final int bytesPerSecond;
+    private final int frameBytes;
+    private final AudioReplayBuffer replay;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    // 현재 연결의 0ms 가 원래 timeline 의 몇 ms 인지
+    private volatile long offsetMs = 0;
+    private volatile boolean reconnected = false;
+    // channel 별, 원래 timeline 기준
+    private final Map<Integer, Long> ackMs = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> lastFinalEndMs = new ConcurrentHashMap<>();
+
+    /**
+     * @param bytesPerSecond byte rate of the audio, 0 when unknown (no replay)
+     * @param frameBytes     replay starts on a multiple of this
+     */
+    ReplayTimeline(ReconnectPolicy policy, int bytesPerSecond, int frameBytes) {
+        this.policy = policy;
+        this.bytesPerSecond = bytesPerSecond;
+        this.frameBytes = Math.max(1, frameBytes);
+
+        long replayBytes = bytesPerSecond * policy.getReplayMs() / 1000;
+        this.replay = policy.isEnabled() && replayBytes > 0 ? new AudioReplayBuffer((int) Math.min(replayBytes, Integer.MAX_VALUE - 8)) : null;
+    }
+
+    static void schedule(Runnable task, long delayMs) {
+        scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    boolean isEnabled() {
+        return policy.isEnabled();
+    }
+
+    void append(byte[] data, int offset, int length) {
+        if (replay != null) {
+            replay.append(data, offset, length);
+        }
+    }
+
+    void append(ByteBuffer data) {
+        if (replay != null) {
+            replay.append(data);
+        }
+    }
+
+    long getOffsetMs() {
+        return offsetMs;
+    }
+
+    // 가장 늦은 channel 기준, 그 이후의 audio 는 모든 channel 에서 아직 final 이 아닐 수 있다
+    long getAckMs() {
+        return ackMs.values().stream().mapToLong(Long::longValue).min().orElse(0);
+    }
+
+    boolean isReconnected() {
+        return reconnected;
+    }
+
+    /**
+     * @param finalProcTimeMs final processing time on the original timeline
+     */
+    void ack(int channel, long finalProcTimeMs) {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        ackMs.merge(channel, finalProcTimeMs, Math::max);
+    }
+
+    /**
+     * True for a final word starting before the end of the last final word of its channel once a reconnect
+     * replayed audio, i.e. a word that was already delivered.
+     *
+     * @param startMs start on the original timeline
+     */
+    boolean isRepeatedFinal(int channel, long startMs) {
+        return reconnected && startMs < lastFinalEndMs.getOrDefault(channel, 0L);
+    }
+
+    void finalWord(int channel, long endMs) {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        lastFinalEndMs.merge(channel, endMs, Math::max);
+    }
+
+    /**
+     * @return the attempt number, 0 when retries are disabled or used up
+     */
+    int nextAttempt() {
+        if (!policy.isEnabled() || attempts.get() >= policy.getMaxRetries()) {
+            return 0;
+        }
+        return attempts.incrementAndGet();
+    }
+
+    void resetAttempts() {
+        attempts.set(0);
+    }
+
+    long backoffMs(int attempt) {
+        return policy.backoffMs(attempt);
+    }
+
+    /**
+     * Moves the timeline to a new connection and passes it the audio after the last final processing time.
+     * The caller must hold off new audio until this returns.
+     */
+    void reconnected(AudioReplayBuffer.ChunkConsumer target) {
+        reconnected = true;
+        if (replay == null) {
+            // 재생할 audio 가 없으면 마지막 final 이후부터 이어 붙인다
+            offsetMs = lastFinalEndMs.values().stream().mapToLong(Long::longValue).max().orElse(0);
+            logger.info("reconnected without replay offsetMs={}", offsetMs);
+            return;
+        }
+
+        long ack = getAckMs();
+        long from = ack * bytesPerSecond / 1000;
+        from -= from % frameBytes;
+        long start = Math.max(from, replay.getOldestBytes());
+        offsetMs = start * 1000 / bytesPerSecond;
+        if (start > from) {
+            logger.warn("replay buffer overrun, audio lost fromMs={} toMs={}", ack, offsetMs);
+        }
+        replay.replay(start, REPLAY_CHUNK_SIZE, target);
+        logger.info("reconnected replayFromMs={} replayBytes={}", offsetMs, replay.getTotalBytes() - start);
+    }
+}
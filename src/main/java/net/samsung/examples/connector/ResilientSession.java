@@ -0,0 +1,242 @@
+package net.samsung.examples.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TranscribeStream session that survives transport failures. Sent audio is kept in an {@link AudioReplayBuffer};
+ * after a retryable error a new session is opened with the same config, the audio after the last final
+ * processing time is replayed and word timestamps of the new session are shifted onto the original timeline.
+ * Final words that were already delivered are dropped per channel. The bookkeeping is kept in a {@link ReplayTimeline};
+ * results pass through untouched until the first reconnect.
+ */
+public class ResilientSession {
+    private static final Logger logger = LoggerFactory.getLogger(ResilientSession.class);
+
+    public interface SessionOpener {
+        SonioxASRSession open(SonioxASRSessionListener listener);
+    }
+
+    private final SessionOpener opener;
+    private final ReconnectPolicy policy;
+    private final SonioxASRSessionListener listener;
+    private final ReplayTimeline timeline;
+
+    // callback 은 sender 의 drain 과 같은 executor 에서 돌기 때문에 sendLock 을 잡지 않는다
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private volatile SonioxASRSession session = null;
+    private volatile int generation = 0;
+    private volatile int reconnectCount = 0;
+    private volatile boolean completeRequested = false;
+    private volatile boolean closed = false;
+
+    /**
+     * @param bytesPerSecond byte rate of the audio, 0 when unknown (no replay)
+     * @param frameBytes     replay starts on a multiple of this
+     */
+    public ResilientSession(SessionOpener opener, ReconnectPolicy policy, int bytesPerSecond, int frameBytes, SonioxASRSessionListener listener) {
+        this.opener = opener;
+        this.policy = policy;
+        this.listener = listener;
+        this.timeline = new ReplayTimeline(policy, bytesPerSecond, frameBytes);
+    }
+
+    public void start() {
+        sendLock.lock();
+        try {
+            session = opener.open(newListener(++generation));
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    public void send(byte[] buffer, int offset, int length) {
+        sendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("session is closed");
+            }
+            timeline.append(buffer, offset, length);
+
+            SonioxASRSession current = session;
+            if (current == null || current.getState() != SessionState.OPEN) {
+                if (!policy.isEnabled()) {
+                    throw new IllegalStateException("session is not open");
+                }
+                // 재연결 중. replay buffer 에서 다시 보낸다
+                return;
+            }
+            try {
+                current.send(buffer, offset, length);
+            } catch (IllegalStateException e) {
+                if (!policy.isEnabled()) {
+                    throw e;
+                }
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    public void complete() {
+        sendLock.lock();
+        try {
+            completeRequested = true;
+            SonioxASRSession current = session;
+            if (current != null && current.getState() == SessionState.OPEN) {
+                current.complete();
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    public void cancel(String reason) {
+        sendLock.lock();
+        try {
+            closed = true;
+            if (session != null) {
+                session.cancel(reason);
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    public int getReconnectCount() {
+        return reconnectCount;
+    }
+
+    public SessionState getState() {
+        SonioxASRSession current = session;
+        return current == null ? SessionState.CREATED : current.getState();
+    }
+
+    private SonioxASRSessionListener newListener(int sessionGeneration) {
+        return new SonioxASRSessionListener() {
+            @Override
+            public void onResult(SonioxASRSession source, SpeechServiceOuterClass.Result result) {
+                if (sessionGeneration != generation) {
+                    return;
+                }
+                listener.onResult(source, rebase(result));
+            }
+
+            @Override
+            public void onStateChanged(SonioxASRSession source, SessionState state) {
+                if (sessionGeneration != generation) {
+                    return;
+                }
+                listener.onStateChanged(source, state);
+            }
+
+            @Override
+            public void onCompleted(SonioxASRSession source) {
+                if (sessionGeneration != generation) {
+                    return;
+                }
+                closed = true;
+                listener.onCompleted(source);
+            }
+
+            @Override
+            public void onError(SonioxASRSession source, Throwable t) {
+                if (sessionGeneration != generation) {
+                    return;
+                }
+                if (!scheduleReconnect(t)) {
+                    listener.onError(source, t);
+                }
+            }
+        };
+    }
+
+    // 재연결 후에는 새 session 의 시간을 원래 timeline 으로 옮기고 channel 별로 이미 전달한 final 단어는 제거
+    private SpeechServiceOuterClass.Result rebase(SpeechServiceOuterClass.Result result) {
+        if (!timeline.isEnabled()) {
+            return result;
+        }
+
+        int channel = result.getChannel();
+        SpeechServiceOuterClass.Result rebased = result;
+        if (timeline.isReconnected()) {
+            long offset = timeline.getOffsetMs();
+            SpeechServiceOuterClass.Result.Builder builder = result.toBuilder().clearWords()
+                    .setFinalProcTimeMs((int) (result.getFinalProcTimeMs() + offset))
+                    .setTotalProcTimeMs((int) (result.getTotalProcTimeMs() + offset));
+            for (SpeechServiceOuterClass.Word word : result.getWordsList()) {
+                long startMs = word.getStartMs() + offset;
+                if (word.getIsFinal() && timeline.isRepeatedFinal(channel, startMs)) {
+                    continue;
+                }
+                builder.addWords(word.toBuilder().setStartMs((int) startMs));
+            }
+            rebased = builder.build();
+        }
+
+        for (SpeechServiceOuterClass.Word word : rebased.getWordsList()) {
+            if (word.getIsFinal()) {
+                timeline.finalWord(channel, word.getStartMs() + word.getDurationMs());
+            }
+        }
+        timeline.ack(channel, rebased.getFinalProcTimeMs());
+        if (rebased.getWordsCount() > 0) {
+            timeline.resetAttempts();
+        }
+        return rebased;
+    }
+
+    private boolean scheduleReconnect(Throwable t) {
+        int attempt = closed || !ReconnectPolicy.isRetryable(t) ? 0 : timeline.nextAttempt();
+        if (attempt == 0) {
+            closed = true;
+            return false;
+        }
+
+        long backoffMs = timeline.backoffMs(attempt);
+        logger.warn("stream failed, reconnecting attempt={} backoffMs={} ackMs={} : {}", attempt, backoffMs, timeline.getAckMs(), t.getMessage());
+        ReplayTimeline.schedule(this::reconnect, backoffMs);
+        return true;
+    }
+
+    private void reconnect() {
+        sendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            SonioxASRSession next;
+            try {
+                next = opener.open(newListener(++generation));
+            } catch (RuntimeException e) {
+                logger.warn("reconnect failed : {}", e.getMessage());
+                session = null;
+                if (!scheduleReconnect(e)) {
+                    listener.onError(null, e);
+                }
+                return;
+            }
+            session = next;
+            reconnectCount++;
+
+            // 마지막 final 처리 시점 이후의 audio 를 다시 보낸다
+            // send 도 sendLock 안에서만 append 하므로 replay 시작 위치가 바뀌지 않는다
+            timeline.reconnected((data, offset, length) -> {
+                if (next.getState() == SessionState.OPEN) {
+                    next.send(data, offset, length);
+                }
+            });
+            logger.info("reconnected count={}", reconnectCount);
+
+            if (completeRequested && next.getState() == SessionState.OPEN) {
+                next.complete();
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.samsung.examples.connector;
+
+import net.samsung.examples.metrics.StreamLatencyTracker;
+import net.samsung.examples.sink.TranscriptEvent;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+/**
+ * Maps the Results of one recognition stream to transcript events, shared by the gRPC connectors.
+ * Final words are collected into sentences by the segmenter, non-final words form the partial of the result.
+ * Not thread-safe.
+ */
+class ResultTranscriber {
+    private final SentenceSegmenter segmenter;
+    private final StringBuilder nonFinalSpeech = new StringBuilder();
+
+    ResultTranscriber(SentenceSegmenter segmenter) {
+        this.segmenter = segmenter;
+    }
+
+    SentenceSegmenter getSegmenter() {
+        return segmenter;
+    }
+
+    /**
+     * @param latency null : not measured
+     * @return the partial to emit, null when there is none or non-final output is off
+     */
+    TranscriptEvent handle(SpeechServiceOuterClass.Result result, int channel, boolean nonFinal, StreamLatencyTracker latency) {
+        nonFinalSpeech.setLength(0);
+        int currSpeaker = -1;
+
+        for (SpeechServiceOuterClass.Word word : result.getWordsList()) {
+            if (latency != null) {
+                latency.word(word.getIsFinal(), word.getStartMs());
+            }
+            String text = word.getText();
+            if (text.isEmpty()) {
+                continue;
+            }
+
+            if (word.getIsFinal()) {
+                segmenter.addFinal(text, word.getStartMs(), word.getDurationMs(), word.getSpeaker());
+                currSpeaker = word.getSpeaker();
+            } else {
+                nonFinalSpeech.append(text);
+                if (currSpeaker == -1 || word.getSpeaker() != 0) {
+                    currSpeaker = word.getSpeaker();
+                }
+            }
+        }
+
+        if (latency != null) {
+            latency.result(result.getFinalProcTimeMs(), result.getTotalProcTimeMs());
+        }
+
+        // 진행 중인 문장
+        if (nonFinal && currSpeaker != -1 && (segmenter.hasPending() || nonFinalSpeech.length() > 0)) {
+            return TranscriptEvent.partial(channel, currSpeaker, segmenter.getPending().toString(), nonFinalSpeech.toString());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+package net.samsung.examples.connector;
+
+import java.util.Arrays;
+
+/**
+ * Sentence terminators as a precomputed code-point table. A text ends a sentence when its last code point,
+ * ignoring trailing whitespace and closing quotes/brackets, is a terminator.
+ */
+public final class SentenceBoundary {
+
+    private static final String COMMON = ".!?。…";
+    private static final String JAPANESE = "。！？｡．";
+    private static final String CHINESE = "。！？；";
+    private static final String CLOSERS = "\"')]}”’」』）〕》〉】";
+
+    // BMP 전체에 대한 bit table
+    private static final long[] closers = new long[1024];
+
+    static {
+        CLOSERS.codePoints().forEach(cp -> closers[cp >>> 6] |= 1L << cp);
+    }
+
+    public static final SentenceBoundary DEFAULT = new SentenceBoundary(COMMON);
+
+    private final long[] terminators = new long[1024];
+    private final int[] supplementary;
+
+    public SentenceBoundary(String terminatorChars) {
+        supplementary = terminatorChars.codePoints().filter(cp -> cp > 0xFFFF).sorted().distinct().toArray();
+        terminatorChars.codePoints().filter(cp -> cp <= 0xFFFF).forEach(cp -> terminators[cp >>> 6] |= 1L << cp);
+    }
+
+    /**
+     * Terminators of the recognition language; Korean uses the common set.
+     */
+    public static SentenceBoundary forLanguage(String languageCode) {
+        if (languageCode == null) {
+            return DEFAULT;
+        }
+        switch (languageCode) {
+            case "ja":
+                return new SentenceBoundary(COMMON + JAPANESE);
+            case "zh":
+                return new SentenceBoundary(COMMON + CHINESE);
+            default:
+                return DEFAULT;
+        }
+    }
+
+    public boolean isTerminator(int codePoint) {
+        if (codePoint <= 0xFFFF) {
+            return (terminators[codePoint >>> 6] & (1L << codePoint)) != 0;
+        }
+        return Arrays.binarySearch(supplementary, codePoint) >= 0;
+    }
+
+    public boolean endsSentence(CharSequence text) {
+        int i = text.length();
+        while (i > 0) {
+            int cp = Character.codePointBefore(text, i);
+            if (!isSkippable(cp)) {
+                return isTerminator(cp);
+            }
+            i -= Character.charCount(cp);
+        }
+        return false;
+    }
+
+    public boolean endsSentence(char[] text, int offset, int length) {
+        int i = offset + length;
+        while (i > offset) {
+            int cp = Character.codePointBefore(text, i, offset);
+            if (!isSkippable(cp)) {
+                return isTerminator(cp);
+            }
+            i -= Character.charCount(cp);
+        }
+        return false;
+    }
+
+    private static boolean isSkippable(int cp) {
+        return Character.isWhitespace(cp) || (cp <= 0xFFFF && (closers[cp >>> 6] & (1L << cp)) != 0);
+    }
+}
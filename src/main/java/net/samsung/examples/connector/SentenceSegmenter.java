@@ -0,0 +1,127 @@
+package net.samsung.examples.connector;
+
+/**
+ * Collects final words into sentences. A sentence ends at a terminator word, and optionally when the speaker
+ * changes, when the pause before a word reaches {@code maxPauseMs} or when it reaches {@code maxSentenceMs}.
+ * Each word costs O(length of the word). Not thread-safe.
+ */
+public class SentenceSegmenter {
+
+    public interface SentenceListener {
+        void onSentence(int speaker, String text, int startMs, int endMs);
+    }
+
+    private final SentenceBoundary boundary;
+    private final boolean splitBySpeaker;
+    private final long maxSentenceMs;
+    private final long maxPauseMs;
+    private final SentenceListener listener;
+
+    private final StringBuilder pending = new StringBuilder();
+    private int speaker = -1;
+    private int startMs = -1;
+    private int endMs = -1;
+
+    /**
+     * @param maxSentenceMs 0 : no duration limit
+     * @param maxPauseMs    0 : pauses do not split
+     */
+    public SentenceSegmenter(SentenceBoundary boundary, boolean splitBySpeaker, long maxSentenceMs, long maxPauseMs, SentenceListener listener) {
+        this.boundary = boundary;
+        this.splitBySpeaker = splitBySpeaker;
+        this.maxSentenceMs = maxSentenceMs;
+        this.maxPauseMs = maxPauseMs;
+        this.listener = listener;
+    }
+
+    public void addFinal(CharSequence text, int startMs, int durationMs, int speaker) {
+        if (!beforeAppend(text.length() == 0 || isBlank(text), startMs, speaker)) {
+            return;
+        }
+        pending.append(text);
+        afterAppend(boundary.endsSentence(text), startMs, durationMs);
+    }
+
+    public void addFinal(char[] text, int offset, int length, int startMs, int durationMs, int speaker) {
+        if (!beforeAppend(length == 0 || isBlank(text, offset, length), startMs, speaker)) {
+            return;
+        }
+        pending.append(text, offset, length);
+        afterAppend(boundary.endsSentence(text, offset, length), startMs, durationMs);
+    }
+
+    public boolean hasPending() {
+        return pending.length() > 0;
+    }
+
+    /**
+     * Text of the open sentence, valid until the next call.
+     */
+    public CharSequence getPending() {
+        return pending;
+    }
+
+    public int getPendingSpeaker() {
+        return speaker;
+    }
+
+    /**
+     * Emits the open sentence, if any.
+     */
+    public void flush() {
+        if (pending.length() > 0) {
+            String text = pending.toString().trim();
+            pending.setLength(0);
+            if (!text.isEmpty()) {
+                listener.onSentence(speaker, text, startMs, endMs);
+            }
+        }
+        startMs = -1;
+        endMs = -1;
+    }
+
+    // 새 단어 전에 문장을 끊어야 하는지 판단. 단어를 추가해야 하면 true
+    private boolean beforeAppend(boolean blank, int wordStartMs, int wordSpeaker) {
+        if (pending.length() > 0) {
+            boolean speakerChanged = splitBySpeaker && wordSpeaker != speaker;
+            boolean paused = maxPauseMs > 0 && !blank && endMs >= 0 && wordStartMs - endMs >= maxPauseMs;
+            if (speakerChanged || paused) {
+                flush();
+            }
+        }
+        if (pending.length() == 0) {
+            if (blank) {
+                // 문장 앞 공백은 버린다
+                return false;
+            }
+            speaker = wordSpeaker;
+            startMs = wordStartMs;
+        }
+        return true;
+    }
+
+    private void afterAppend(boolean terminated, int wordStartMs, int durationMs) {
+        endMs = Math.max(endMs, wordStartMs + durationMs);
+        if (terminated || (maxSentenceMs > 0 && endMs - startMs >= maxSentenceMs)) {
+            flush();
+        }
+    }
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(char[] text, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (!Character.isWhitespace(text[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package net.samsung.examples.connector;
+
+public enum SessionState {
+    CREATED,
+    CONNECTING,
+    OPEN,
+    COMPLETING,
+    CLOSED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == CLOSED || this == FAILED;
+    }
+}
@@ -0,0 +1,89 @@
+package net.samsung.examples.connector;
+
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts the results of time slices recognized out of order back on one timeline.
+ * Word times are shifted by the slice start, words outside the range the slice owns are dropped,
+ * and slices are handed to the assembler in order as soon as all earlier slices are complete.
+ * Sessions of different slices number their speakers independently, so speaker {@code n} of slice {@code i}
+ * becomes {@code i * SPEAKER_STRIDE + n}; speaker 0 (none) is kept.
+ */
+class SliceStitcher {
+
+    static final int SPEAKER_STRIDE = 100;
+
+    private final List<TimeSlicer.Slice> slices;
+    private final TranscriptAssembler assembler;
+
+    private final List<List<SpeechServiceOuterClass.Result>> pending = new ArrayList<>();
+    private final boolean[] completed;
+    private int next = 0;
+    private int droppedWords = 0;
+
+    SliceStitcher(List<TimeSlicer.Slice> slices, TranscriptAssembler assembler) {
+        this.slices = slices;
+        this.assembler = assembler;
+        this.completed = new boolean[slices.size()];
+        for (int i = 0; i < slices.size(); i++) {
+            pending.add(new ArrayList<>());
+        }
+    }
+
+    synchronized void add(int index, SpeechServiceOuterClass.Result result) {
+        TimeSlicer.Slice slice = slices.get(index);
+        SpeechServiceOuterClass.Result.Builder rebased = result.toBuilder().clearWords()
+                .setFinalProcTimeMs((int) (result.getFinalProcTimeMs() + slice.getStartMs()))
+                .setTotalProcTimeMs((int) (result.getTotalProcTimeMs() + slice.getStartMs()));
+        for (int i = 0; i < rebased.getSpeakersCount(); i++) {
+            rebased.setSpeakers(i, rebased.getSpeakers(i).toBuilder().setSpeaker(speaker(index, rebased.getSpeakers(i).getSpeaker())));
+        }
+
+        for (SpeechServiceOuterClass.Word word : result.getWordsList()) {
+            if (!word.getIsFinal()) {
+                continue;
+            }
+            long startMs = word.getStartMs() + slice.getStartMs();
+            // overlap 구간의 단어는 이웃 slice 가 담당
+            if (!slice.owns(startMs)) {
+                droppedWords++;
+                continue;
+            }
+            rebased.addWords(word.toBuilder().setStartMs((int) startMs).setSpeaker(speaker(index, word.getSpeaker())));
+        }
+
+        if (rebased.getWordsCount() == 0) {
+            return;
+        }
+        if (index == next) {
+            assembler.add(rebased.getChannel(), rebased.build());
+        } else {
+            pending.get(index).add(rebased.build());
+        }
+    }
+
+    synchronized void complete(int index) {
+        completed[index] = true;
+        while (next < completed.length && completed[next]) {
+            next++;
+            if (next < completed.length) {
+                for (SpeechServiceOuterClass.Result result : pending.get(next)) {
+                    assembler.add(result.getChannel(), result);
+                }
+                pending.get(next).clear();
+            }
+        }
+    }
+
+    // slice 마다 speaker 번호를 따로 붙인다
+    static int speaker(int sliceIndex, int speaker) {
+        return speaker == 0 ? 0 : sliceIndex * SPEAKER_STRIDE + speaker;
+    }
+
+    synchronized int getDroppedWords() {
+        return droppedWords;
+    }
+}
@@ -0,0 +1,399 @@
+package net.samsung.examples.connector;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceGrpc;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Transcribes a directory or manifest of recordings through TranscribeAsync.
+ * Uploads run in parallel up to the concurrency limit and progress is checkpointed so a restart resumes.
+ */
+public class SonioxASRBatchConnector extends SonioxASRConnector {
+    private static final Logger logger = LoggerFactory.getLogger(SonioxASRBatchConnector.class);
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private SpeechServiceOuterClass.TranscriptionConfig config = null;
+
+    private int concurrency = 4;
+    private long pollInitialMs = 1_000;
+    private long pollMaxMs = 30_000;
+
+    public SonioxASRBatchConnector(String address, int port, boolean useSSL, String apiKey) {
+        super(address, port, useSSL, apiKey);
+    }
+
+    public void setBatchOptions(int concurrency, long pollInitialMs, long pollMaxMs) {
+        this.concurrency = Math.max(1, concurrency);
+        this.pollInitialMs = Math.max(100, pollInitialMs);
+        this.pollMaxMs = Math.max(this.pollInitialMs, pollMaxMs);
+    }
+
+    public void connect(String languageCode, boolean useLowLatency, boolean nonFinal, String format, int sampleRate, int channels, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int boostAmount) {
+        config = configTemplate(
+                languageCode, useLowLatency, format, sampleRate, channels,
+                false, speakerDiarization, minSpeaker, maxSpeaker, boostWords, boostAmount, false).getConfig();
+    }
+
+    /**
+     * @param input      directory of recordings, or a manifest file with one path per line
+     * @param outputDir  directory for the transcripts
+     * @param checkpoint progress file; files already done are skipped and uploaded files are resumed
+     */
+    public void recognize(String input, String outputDir, String checkpoint) throws IOException, InterruptedException {
+        if (config == null) {
+            throw new IllegalStateException("config is not set, yet");
+        }
+
+        List<Path> files = listInput(Paths.get(input));
+        Path output = Files.createDirectories(Paths.get(outputDir));
+        Map<String, Path> outputFiles = outputFiles(files, inputBaseDir(Paths.get(input)), output);
+        BatchCheckpoint progress = new BatchCheckpoint(Paths.get(checkpoint));
+
+        logger.info("batch files={} concurrency={} done={}", files.size(), concurrency, progress.getDoneCount());
+
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Path file : files) {
+                String key = file.toAbsolutePath().normalize().toString();
+                if (progress.isDone(key)) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+
+                futures.add(executor.submit(() -> {
+                    try {
+                        process(file, key, outputFiles.get(key), progress);
+                        done.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        logger.error("batch failed file={} message={}", key, e.getMessage());
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.error("batch task error: {}", e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            progress.close();
+        }
+
+        logger.info("batch completed done={} failed={} skipped={}", done.get(), failed.get(), skipped.get());
+    }
+
+    // channel 은 upload, 상태 조회, 결과 수신마다 lease 하고 조회 대기 중에는 반납
+    private void process(Path file, String key, Path outputFile, BatchCheckpoint progress) throws Exception {
+        String fileId = progress.getFileId(key);
+        if (fileId == null) {
+            try (SonioxChannelPool.Lease lease = acquireChannel()) {
+                fileId = upload(SpeechServiceGrpc.newStub(lease.getChannel()), file);
+            }
+            progress.uploaded(key, fileId);
+            logger.info("uploaded file={} fileId={}", key, fileId);
+        } else {
+            logger.info("resume file={} fileId={}", key, fileId);
+        }
+
+        SpeechServiceOuterClass.TranscribeAsyncFileStatus status = awaitCompletion(fileId);
+        if (status == null || !status.getStatus().equals("COMPLETED")) {
+            // 서버에서 실패했거나 사라진 파일은 다음 실행 때 다시 업로드
+            if (status != null) {
+                deleteFile(fileId);
+            }
+            progress.reset(key);
+            throw new IOException("transcription failed fileId=" + fileId + " : "
+                    + (status == null ? "file is not found on server" : status.getErrorMessage()));
+        }
+
+        try (SonioxChannelPool.Lease lease = acquireChannel()) {
+            writeResult(SpeechServiceGrpc.newBlockingStub(lease.getChannel()), fileId, outputFile);
+        }
+        deleteFile(fileId);
+
+        progress.done(key);
+        logger.info("transcribed file={} output={}", key, outputFile);
+    }
+
+    private String upload(SpeechServiceGrpc.SpeechServiceStub stub, Path file) throws Exception {
+        CompletableFuture<String> fileId = new CompletableFuture<>();
+        FlowControlledSender<SpeechServiceOuterClass.TranscribeAsyncRequest> sender = new FlowControlledSender<>(
+                sendQueueBytes, FlowControlledSender.OverflowPolicy.BLOCK, request -> request.getAudio().size());
+
+        stub.transcribeAsync(new ClientResponseObserver<SpeechServiceOuterClass.TranscribeAsyncRequest, SpeechServiceOuterClass.TranscribeAsyncResponse>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<SpeechServiceOuterClass.TranscribeAsyncRequest> requestStream) {
+                sender.attach(requestStream);
+            }
+
+            @Override
+            public void onNext(SpeechServiceOuterClass.TranscribeAsyncResponse response) {
+                fileId.complete(response.getFileId());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                sender.close();
+                fileId.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                fileId.completeExceptionally(new IllegalStateException("no file id returned"));
+            }
+        });
+
+        try {
+            sender.send(SpeechServiceOuterClass.TranscribeAsyncRequest.newBuilder()
+                    .setApiKey(apiKey)
+                    .setReferenceName(file.getFileName().toString())
+                    .setConfig(config)
+                    .build());
+            AudioFileReader.readChunks(file.toString(), CHUNK_SIZE, true,
+                    chunk -> sender.send(SpeechServiceOuterClass.TranscribeAsyncRequest.newBuilder().setAudio(chunk).build()));
+            sender.complete();
+        } catch (IOException | RuntimeException e) {
+            sender.cancel("upload failed: " + e.getMessage());
+            throw e;
+        }
+
+        try {
+            return fileId.get();
+        } catch (ExecutionException e) {
+            throw new IOException("upload failed : " + file, e.getCause());
+        }
+    }
+
+    private SpeechServiceOuterClass.TranscribeAsyncFileStatus awaitCompletion(String fileId) throws InterruptedException {
+        long delay = pollInitialMs;
+        String lastStatus = null;
+
+        while (true) {
+            SpeechServiceOuterClass.GetTranscribeAsyncStatusResponse response;
+            try (SonioxChannelPool.Lease lease = acquireChannel()) {
+                response = SpeechServiceGrpc.newBlockingStub(lease.getChannel()).getTranscribeAsyncStatus(
+                        SpeechServiceOuterClass.GetTranscribeAsyncStatusRequest.newBuilder()
+                                .setApiKey(apiKey)
+                                .setFileId(fileId)
+                                .build());
+            }
+
+            SpeechServiceOuterClass.TranscribeAsyncFileStatus status = null;
+            for (SpeechServiceOuterClass.TranscribeAsyncFileStatus candidate : response.getFilesList()) {
+                if (candidate.getFileId().equals(fileId)) {
+                    status = candidate;
+                }
+            }
+            if (status == null || status.getStatus().equals("COMPLETED") || status.getStatus().equals("FAILED")) {
+                return status;
+            }
+
+            // 상태가 바뀌면 처음 간격으로, 그대로면 간격을 늘려서 조회
+            delay = status.getStatus().equals(lastStatus) ? Math.min(delay * 2, pollMaxMs) : pollInitialMs;
+            lastStatus = status.getStatus();
+            Thread.sleep(delay);
+        }
+    }
+
+    private void deleteFile(String fileId) {
+        try (SonioxChannelPool.Lease lease = acquireChannel()) {
+            SpeechServiceGrpc.newBlockingStub(lease.getChannel()).deleteTranscribeAsyncFile(SpeechServiceOuterClass.DeleteTranscribeAsyncFileRequest.newBuilder()
+                    .setApiKey(apiKey)
+                    .setFileId(fileId)
+                    .build());
+        }
+    }
+
+    private void writeResult(SpeechServiceGrpc.SpeechServiceBlockingStub blockingStub, String fileId, Path outputFile) throws IOException {
+        Files.createDirectories(outputFile.toAbsolutePath().getParent());
+        Path tempFile = outputFile.resolveSibling(outputFile.getFileName() + ".part");
+
+        Iterator<SpeechServiceOuterClass.GetTranscribeAsyncResultResponse> responses = blockingStub.getTranscribeAsyncResult(
+                SpeechServiceOuterClass.GetTranscribeAsyncResultRequest.newBuilder()
+                        .setApiKey(apiKey)
+                        .setFileId(fileId)
+                        .build());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            while (responses.hasNext()) {
+                SpeechServiceOuterClass.GetTranscribeAsyncResultResponse response = responses.next();
+                writeResult(writer, response.getResult(), response.getSeparateRecognitionPerChannel());
+            }
+        }
+
+        Files.move(tempFile, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeResult(BufferedWriter writer, SpeechServiceOuterClass.Result result, boolean perChannel) throws IOException {
+        int prevSpeaker = -1;
+        StringBuilder sb = new StringBuilder();
+
+        for (SpeechServiceOuterClass.Word word : result.getWordsList()) {
+            // speaker 가 바뀌면 한 줄씩 기록
+            if (word.getSpeaker() != prevSpeaker && sb.length() > 0) {
+                writeLine(writer, result.getChannel(), prevSpeaker, perChannel, sb);
+            }
+            sb.append(word.getText());
+            prevSpeaker = word.getSpeaker();
+        }
+
+        if (sb.length() > 0) {
+            writeLine(writer, result.getChannel(), prevSpeaker, perChannel, sb);
+        }
+    }
+
+    private static void writeLine(BufferedWriter writer, int channel, int speaker, boolean perChannel, StringBuilder sb) throws IOException {
+        StringBuilder prefix = new StringBuilder();
+        if (perChannel) prefix.append("Channel ").append(channel);
+        if (perChannel && speaker > 0) prefix.append(", ");
+        if (speaker > 0) prefix.append("Speaker ").append(speaker);
+        if (prefix.length() > 0) prefix.append(": ");
+
+        writer.write(prefix + sb.toString().trim());
+        writer.newLine();
+        sb.setLength(0);
+    }
+
+    private static Path inputBaseDir(Path input) {
+        return Files.isDirectory(input) ? input.toAbsolutePath().normalize() : input.toAbsolutePath().normalize().getParent();
+    }
+
+    /**
+     * Output path of each input, keeping its path relative to the input directory (or manifest directory)
+     * so that recordings with the same name in different directories do not overwrite each other.
+     * Inputs outside that directory keep their absolute path under the output directory.
+     */
+    private static Map<String, Path> outputFiles(List<Path> files, Path baseDir, Path outputDir) throws IOException {
+        Map<String, Path> outputs = new HashMap<>();
+        Map<Path, String> owners = new HashMap<>();
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            Path relative = absolute.startsWith(baseDir)
+                    ? baseDir.relativize(absolute)
+                    : absolute.getRoot().relativize(absolute);
+            Path outputFile = outputDir.resolve(relative.toString() + ".txt").normalize();
+
+            String key = absolute.toString();
+            String owner = owners.putIfAbsent(outputFile, key);
+            if (owner != null && !owner.equals(key)) {
+                throw new IOException("output file collision : " + owner + ", " + key + " -> " + outputFile);
+            }
+            outputs.put(key, outputFile);
+        }
+        return outputs;
+    }
+
+    private static List<Path> listInput(Path input) throws IOException {
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> stream = Files.list(input)) {
+                return stream.filter(Files::isRegularFile)
+                        .filter(path -> !path.getFileName().toString().startsWith("."))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+
+        // manifest : 한 줄에 파일 경로 하나, # 으로 시작하면 주석
+        Set<Path> files = new LinkedHashSet<>();
+        Path baseDir = input.toAbsolutePath().getParent();
+        for (String line : Files.readAllLines(input, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            files.add(baseDir.resolve(trimmed).normalize());
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Append-only progress file. Each line is {@code UPLOADED<TAB>path<TAB>fileId}, {@code RESET<TAB>path} or {@code DONE<TAB>path}.
+     */
+    private static class BatchCheckpoint {
+        private final Map<String, String> uploaded = new HashMap<>();
+        private final Set<String> done = new HashSet<>();
+        private final BufferedWriter writer;
+
+        BatchCheckpoint(Path file) throws IOException {
+            if (Files.exists(file)) {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split("\t");
+                    if (fields.length == 3 && fields[0].equals("UPLOADED")) {
+                        uploaded.put(fields[1], fields[2]);
+                    } else if (fields.length == 2 && fields[0].equals("RESET")) {
+                        uploaded.remove(fields[1]);
+                    } else if (fields.length == 2 && fields[0].equals("DONE")) {
+                        uploaded.remove(fields[1]);
+                        done.add(fields[1]);
+                    }
+                }
+            } else if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        synchronized boolean isDone(String key) {
+            return done.contains(key);
+        }
+
+        synchronized int getDoneCount() {
+            return done.size();
+        }
+
+        synchronized String getFileId(String key) {
+            return uploaded.get(key);
+        }
+
+        synchronized void uploaded(String key, String fileId) throws IOException {
+            uploaded.put(key, fileId);
+            append("UPLOADED\t" + key + "\t" + fileId);
+        }
+
+        synchronized void done(String key) throws IOException {
+            done.add(key);
+            uploaded.remove(key);
+            append("DONE\t" + key);
+        }
+
+        synchronized void reset(String key) throws IOException {
+            uploaded.remove(key);
+            append("RESET\t" + key);
+        }
+
+        private void append(String line) throws IOException {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        }
+
+        synchronized void close() throws IOException {
+            writer.close();
+        }
+    }
+}
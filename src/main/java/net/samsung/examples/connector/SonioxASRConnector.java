@@ -1,6 +1,11 @@
 package net.samsung.examples.connector;
 
 import io.grpc.*;
+import net.samsung.examples.metrics.MetricsRegistry;
+import net.samsung.examples.metrics.StreamLatencyTracker;
+import net.samsung.examples.sink.TranscriptEvent;
+import net.samsung.examples.sink.TranscriptPublisher;
+import net.samsung.examples.sink.TranscriptSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import soniox.speech_service.SpeechServiceOuterClass;
@@ -9,9 +14,12 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class SonioxASRConnector {
     private static final Logger logger = LoggerFactory.getLogger(SonioxASRConnector.class);
+    private static final AtomicInteger nextSourceId = new AtomicInteger();
 
     protected String address = "127.0.0.1";
     protected int port = 0;
@@ -20,6 +28,20 @@ public abstract class SonioxASRConnector {
     protected boolean useProxy = false;
     protected String proxyHost = "127.0.0.1";
     protected int proxyPort = 0;
+    protected long sendQueueBytes = 1024 * 1024;
+    protected FlowControlledSender.OverflowPolicy overflowPolicy = FlowControlledSender.OverflowPolicy.BLOCK;
+    protected long maxSentenceMs = 0;
+    protected long maxPauseMs = 0;
+    protected TranscriptSink transcriptSink = null;
+    protected ReconnectPolicy reconnectPolicy = ReconnectPolicy.disabled();
+    protected String speechContextName = "";
+    protected ChunkingPolicy chunkingPolicy = ChunkingPolicy.fixedMs(ChunkingPolicy.DEFAULT_MS);
+    // connect 전에는 결과로 조정하지 않는 고정 크기
+    protected ChunkSizer chunkSizer = ChunkingPolicy.fixedMs(ChunkingPolicy.DEFAULT_MS).newSizer(0, 1, false);
+    private boolean labelChannel = false;
+    private boolean labelSpeaker = true;
+    // sink 를 여러 connector 가 같이 쓸 때 event 를 구분
+    private final int sourceId = nextSourceId.incrementAndGet();
 
     public SonioxASRConnector(String address, int port, boolean useSSL, String apiKey) {
         this.address = address;
@@ -34,18 +56,151 @@ public abstract class SonioxASRConnector {
         this.proxyPort = proxyPort;
     }
 
+    public void setSendQueue(long sendQueueBytes, FlowControlledSender.OverflowPolicy overflowPolicy) {
+        this.sendQueueBytes = sendQueueBytes;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Splits sentences that run longer than {@code maxSentenceMs} or pause for {@code maxPauseMs}; 0 disables each.
+     */
+    public void setSentenceSplit(long maxSentenceMs, long maxPauseMs) {
+        this.maxSentenceMs = maxSentenceMs;
+        this.maxPauseMs = maxPauseMs;
+    }
+
+    /**
+     * Reopens broken streams and replays the audio the server had not finalized yet.
+     */
+    public void setReconnectPolicy(ReconnectPolicy reconnectPolicy) {
+        this.reconnectPolicy = reconnectPolicy;
+    }
+
+    /**
+     * Size of the audio chunks sent by the mic and file paths.
+     */
+    public void setChunkingPolicy(ChunkingPolicy chunkingPolicy) {
+        this.chunkingPolicy = chunkingPolicy;
+    }
+
+    /**
+     * Chunk size of the connected stream, adjusted from its results under an adaptive policy. A fixed default before connect.
+     */
+    public ChunkSizer getChunkSizer() {
+        return chunkSizer;
+    }
+
+    /**
+     * Keeps the boost words in a server side speech context with this name and sends only the name with each session.
+     * Empty sends the boost words with every session.
+     */
+    public void setSpeechContextName(String speechContextName) {
+        this.speechContextName = speechContextName == null ? "" : speechContextName;
+    }
+
+    /**
+     * Destination of transcripts. Without a sink transcripts go to the application log.
+     */
+    public void setTranscriptSink(TranscriptSink transcriptSink) {
+        this.transcriptSink = transcriptSink;
+    }
+
+    /**
+     * Sends transcripts to a Flow publisher instead of the current sink and returns it for subscribing.
+     * A subscriber that falls {@code bufferCapacity} events behind misses partials, and final results wait for it
+     * up to {@link TranscriptPublisher#DEFAULT_FINAL_WAIT_MS} before they are dropped.
+     */
+    public TranscriptPublisher publishTranscripts(int bufferCapacity) {
+        TranscriptPublisher publisher = new TranscriptPublisher(bufferCapacity);
+        setTranscriptSink(publisher);
+        return publisher;
+    }
+
+    // toLine 에 표시할 label, 이전 출력과 같이 channel 은 multichannel 일 때만
+    protected void setLabels(boolean channel, boolean speaker) {
+        this.labelChannel = channel;
+        this.labelSpeaker = speaker;
+    }
+
+    protected void emit(TranscriptEvent event) {
+        if (event.getSource() != sourceId || event.isChannelLabeled() != labelChannel || event.isSpeakerLabeled() != labelSpeaker) {
+            event = event.withSource(sourceId, labelChannel, labelSpeaker);
+        }
+        TranscriptSink sink = transcriptSink;
+        if (sink != null) {
+            sink.accept(event);
+        } else {
+            logger.info(event.toLine());
+        }
+    }
+
     public abstract void connect(String languageCode, boolean useLowLatency, boolean nonFinal, String format, int sampleRate, int channels, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int boostAmount) throws IOException;
 
-    protected ManagedChannel getNonProxyChannel(boolean useSSL) {
-        logger.info("getNonProxyChannel() useSSL={}", useSSL);
+    /**
+     * Leases a channel from the shared pool. The lease must be closed when the call using it terminates.
+     */
+    protected SonioxChannelPool.Lease acquireChannel() {
+        SonioxChannelPool.ChannelKey key = new SonioxChannelPool.ChannelKey(
+                address, port, useSSL, useProxy, useProxy ? proxyHost : "", useProxy ? proxyPort : 0);
+        return SonioxChannelPool.shared().acquire(key, () -> useProxy ? getProxyChannelBuilder() : getNonProxyChannelBuilder(useSSL));
+    }
+
+    /**
+     * Opens a TranscribeStream session on a pooled channel. Callbacks run on the shared callback pool of {@link ConnectorThreads}.
+     */
+    protected SonioxASRSession openSession(SpeechServiceOuterClass.TranscriptionConfig config, SonioxASRSessionListener listener) {
+        SonioxASRSession session = new SonioxASRSession(UUID.randomUUID().toString(), listener, sendQueueBytes, overflowPolicy);
+        session.setLatencyTracker(newLatencyTracker(config));
+        session.start(acquireChannel(), apiKey, config, ConnectorThreads.shared().getCallbackExecutor());
+        return session;
+    }
+
+    /**
+     * Latency histograms of one stream, labelled with the connector class.
+     */
+    protected StreamLatencyTracker newLatencyTracker(int bytesPerSecond) {
+        return new StreamLatencyTracker(MetricsRegistry.shared(), getClass().getSimpleName(), bytesPerSecond);
+    }
+
+    protected StreamLatencyTracker newLatencyTracker(SpeechServiceOuterClass.TranscriptionConfig config) {
+        return newLatencyTracker(PcmFormat.bytesPerSecond(config.getAudioFormat(), config.getSampleRateHertz(), config.getNumAudioChannels()));
+    }
+
+    /**
+     * Shared config of the profile. A named speech context is created or updated on the server before it is first used.
+     */
+    protected ConfigTemplate configTemplate(String languageCode, boolean useLowLatency, String format, int sampleRate, int channels, boolean isStream, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int defaultBoostAmount, boolean nonFinal) {
+        ConfigTemplate template = ConfigTemplate.of(new ConfigTemplate.Profile(
+                languageCode, useLowLatency, format, sampleRate, channels, isStream,
+                speakerDiarization, minSpeaker, maxSpeaker, boostWords, defaultBoostAmount, nonFinal, speechContextName));
+
+        SpeechServiceOuterClass.SpeechContext named = template.getNamedSpeechContext();
+        if (named != null) {
+            try (SonioxChannelPool.Lease lease = acquireChannel()) {
+                SpeechContextRegistry.ensure(lease.getChannel(), apiKey, named);
+            }
+        }
+        return template;
+    }
+
+    protected ChunkSizer newChunkSizer(String format, int sampleRate, int channels, boolean useLowLatency) {
+        return chunkingPolicy.newSizer(PcmFormat.bytesPerSecond(format, sampleRate, channels), PcmFormat.frameBytes(format, channels), useLowLatency);
+    }
+
+    protected SentenceSegmenter newSentenceSegmenter(String languageCode, boolean splitBySpeaker, SentenceSegmenter.SentenceListener listener) {
+        return new SentenceSegmenter(SentenceBoundary.forLanguage(languageCode), splitBySpeaker, maxSentenceMs, maxPauseMs, listener);
+    }
+
+    protected ManagedChannelBuilder<?> getNonProxyChannelBuilder(boolean useSSL) {
+        logger.info("getNonProxyChannelBuilder() useSSL={}", useSSL);
         return useSSL
-                ? Grpc.newChannelBuilderForAddress(address, port, TlsChannelCredentials.newBuilder().build()).build()
-                : Grpc.newChannelBuilderForAddress(address, port, InsecureChannelCredentials.create()).build();
+                ? Grpc.newChannelBuilderForAddress(address, port, TlsChannelCredentials.newBuilder().build())
+                : Grpc.newChannelBuilderForAddress(address, port, InsecureChannelCredentials.create());
     }
 
-    protected ManagedChannel getProxyChannel() {
+    protected ManagedChannelBuilder<?> getProxyChannelBuilder() {
         return Grpc.newChannelBuilderForAddress(
-                address, port, TlsChannelCredentials.newBuilder().build()).proxyDetector(buildSetting()).build();
+                address, port, TlsChannelCredentials.newBuilder().build()).proxyDetector(buildSetting());
     }
 
     protected ProxyDetector buildSetting() {
@@ -116,16 +271,12 @@ public abstract class SonioxASRConnector {
             defaultBoostWordAmount = 0;
         }
 
-        int i = 0;
         for (String word : boostWords) {
             if (word.equals(" ") || word.isEmpty()) {
                 continue;
             }
             String[] splitValues = word.split(":");
 
-            System.out.println("[" + i + "] Phrases:" + splitValues[0]);
-            System.out.println("[" + i + "] Boost:" + (splitValues.length == 2 ? Double.parseDouble(splitValues[1]) : defaultBoostWordAmount));
-
             // Create SpeechContextEntry
             SpeechServiceOuterClass.SpeechContextEntry entry =
                     SpeechServiceOuterClass.SpeechContextEntry.newBuilder()
@@ -134,10 +285,9 @@ public abstract class SonioxASRConnector {
 
             // Add SpeechContextEntry
             scBuilder.addEntries(entry);
-
-            i++;
         }
 
+        logger.debug("speech context entries={}", scBuilder.getEntriesCount());
         return scBuilder.build();
     }
 
@@ -1,187 +1,354 @@
 package net.samsung.examples.connector;
 
-import net.samsung.examples.connector.dto.EachWord;
-import com.google.protobuf.ByteString;
-import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
+import net.samsung.examples.sink.TranscriptEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import soniox.speech_service.SpeechServiceGrpc;
 import soniox.speech_service.SpeechServiceOuterClass;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SonioxASRFileStreamConnector extends SonioxASRConnector {
     private static final Logger logger = LoggerFactory.getLogger(SonioxASRFileStreamConnector.class);
 
+    private static final int MAX_PENDING_WORDS = 10_000;
+
     private List<String> results;
-    private List<EachWord> wordList;
+    private TranscriptAssembler assembler;
 
-    private final Object lock = new Object();
+    private boolean memoryMap = false;
+    private int chunkSize = 0;
+    private boolean parallelChannels = false;
+    private int sliceParallelism = 4;
+    private long sliceMs = 0;
+    private long sliceOverlapMs = 0;
+    private long sliceSearchMs = 0;
 
-    final int BUFFER_SIZE = 5 * 1024 * 1024;    // 5MB Buffer
+    private SpeechServiceOuterClass.TranscriptionConfig config = null;
+    private SonioxASRSession session = null;
 
-    private SpeechServiceGrpc.SpeechServiceStub stub = null;
-    private StreamObserver<SpeechServiceOuterClass.TranscribeStreamRequest> stream = null;
+    // 남은 session 수, 모두 끝나면 assembler 를 비우고 done 해제
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile CountDownLatch done = new CountDownLatch(1);
 
     public SonioxASRFileStreamConnector(String address, int port, boolean useSSL, String apiKey) {
         super(address, port, useSSL, apiKey);
     }
 
+    /**
+     * @param memoryMap true to send slices of a memory-mapped file instead of copying it through a heap buffer
+     * @param chunkSize fixed chunk size in bytes, 0 to follow the chunking policy
+     */
+    public void setFileReadMode(boolean memoryMap, int chunkSize) {
+        this.memoryMap = memoryMap;
+        this.chunkSize = Math.max(0, chunkSize);
+    }
+
+    /**
+     * @param parallelChannels true to split multi-channel PCM/WAV files locally and recognize each channel on its own session.
+     *                         Other formats are still sent as one stream.
+     */
+    public void setParallelChannels(boolean parallelChannels) {
+        this.parallelChannels = parallelChannels;
+    }
+
+    /**
+     * Cuts long PCM/WAV files near silence into slices of about {@code sliceMs} and recognizes up to
+     * {@code parallelism} slices at a time. {@code sliceMs} 0 disables slicing.
+     */
+    public void setTimeSlicing(int parallelism, long sliceMs, long overlapMs, long searchMs) {
+        this.sliceParallelism = Math.max(1, parallelism);
+        this.sliceMs = sliceMs;
+        this.sliceOverlapMs = overlapMs;
+        this.sliceSearchMs = searchMs;
+    }
+
     public void connect(String languageCode, boolean useLowLatency, boolean nonFinal, String format, int sampleRate, int channels, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int boostAmount) throws IOException {
 
-        if (stream != null) {
+        if (config != null) {
             throw new IllegalStateException("stream is already set");
         }
 
         results = new ArrayList<>();
-        wordList = new ArrayList<>();
+        chunkSizer = chunkSize > 0
+                ? ChunkingPolicy.fixedBytes(chunkSize).newSizer(PcmFormat.bytesPerSecond(format, sampleRate, channels), PcmFormat.frameBytes(format, channels), useLowLatency)
+                : newChunkSizer(format, sampleRate, channels, useLowLatency);
+
+        // 설정값에 따라 출력 제어
+        boolean enableMultiChannel = channels > 1;
+        boolean enableSpeakerDiarization = speakerDiarization;
+        setLabels(enableMultiChannel, enableSpeakerDiarization);
+        assembler = new TranscriptAssembler(Math.max(channels, 1), enableMultiChannel, enableSpeakerDiarization, MAX_PENDING_WORDS, SentenceBoundary.forLanguage(languageCode),
+                (channel, speaker, text) -> emit(TranscriptEvent.finalSentence(channel, speaker, text, -1, -1)));
+
+        config = configTemplate(
+                languageCode, useLowLatency, format, sampleRate, channels,
+                true, speakerDiarization, minSpeaker, maxSpeaker, boostWords, boostAmount, nonFinal).getConfig();
+
+        // channel 분리, 시간 분할 시 session 은 파일 형식을 확인한 후 연다
+        if (!(parallelChannels && enableMultiChannel) && sliceMs <= 0) {
+            openSingleSession();
+        }
+
+        logger.info("connected !!");
+    }
 
-        // Create the channel.
-        final ManagedChannel channel = useProxy ? getProxyChannel() : getNonProxyChannel(useSSL);
+    private void openSingleSession() {
+        remaining.set(1);
+        done = new CountDownLatch(1);
+        session = openSession(config, newListener(-1));
+    }
 
-        // Create the stub.
-        stub = SpeechServiceGrpc.newStub(channel);
-        stream = stub.transcribeStream(new StreamObserver<SpeechServiceOuterClass.TranscribeStreamResponse>() {
+    /**
+     * @param channel channel of the results, -1 to keep the channel reported by the server
+     */
+    private SonioxASRSessionListener newListener(int channel) {
+        return new SonioxASRSessionListener() {
             @Override
-            public void onNext(SpeechServiceOuterClass.TranscribeStreamResponse response) {
-                if (response.getResult().getWordsList().isEmpty()) {
-                    return;
+            public void onResult(SonioxASRSession session, SpeechServiceOuterClass.Result result) {
+                // final 단어가 확정되는 대로 segment 출력
+                if (channel < 0) {
+                    chunkSizer.result(result.getFinalProcTimeMs());
+                    assembler.add(result);
+                } else {
+                    assembler.add(channel, result);
                 }
-                response.getResult().getWordsList().forEach(word -> {
-                    wordList.add(
-                            EachWord.builder()
-                                    .channel(response.getResult().getChannel())
-                                    .speaker(word.getSpeaker())
-                                    .text(word.getText())
-                                    .startMs(word.getStartMs())
-                                    .build()
-                    );
-                });
             }
 
             @Override
-            public void onError(Throwable throwable) {
+            public void onError(SonioxASRSession session, Throwable throwable) {
                 StringWriter sw = new StringWriter();
                 PrintWriter pw = new PrintWriter(sw);
                 throwable.printStackTrace(pw);
-                logger.error("TranscribeStreamResponse onError() message={} trace={}", throwable.getMessage(), sw.toString());
-                results.add(throwable.getMessage());
-
-                synchronized (lock) {
-                    lock.notify();
+                logger.error("TranscribeStreamResponse onError() channel={} message={} trace={}", channel, throwable.getMessage(), sw.toString());
+                synchronized (results) {
+                    results.add(throwable.getMessage());
                 }
+
+                finish();
             }
 
             @Override
-            public void onCompleted() {
-                logger.info("TranscribeStreamResponse onCompleted() results");
-
-                // startMs 기준 정렬
-                wordList.sort(Comparator.comparingInt(EachWord::getStartMs));
-
-                // 설정값에 따라 출력 제어
-                boolean enableMultiChannel = channels > 1; // 필요 시 외부 파라미터로 설정
-                boolean enableSpeakerDiarization = speakerDiarization; // 필요 시 외부 파라미터로 설정
-
-                int prevSpeaker = -1;
-                int prevChannel = -1;
-                StringBuilder sb = new StringBuilder();
-
-                for (EachWord word : wordList) {
-                    int currentSpeaker = word.getSpeaker();
-                    int currentChannel = word.getChannel();
-
-                    // speaker 또는 channel이 바뀌면 출력
-                    boolean speakerChanged = enableSpeakerDiarization && currentSpeaker != prevSpeaker;
-                    boolean channelChanged = enableMultiChannel && currentChannel != prevChannel;
-
-                    if ((speakerChanged || channelChanged) && sb.length() > 0) {
-                        StringBuilder logPrefix = new StringBuilder();
-                        if (enableMultiChannel) logPrefix.append("Channel ").append(prevChannel);
-                        if (enableMultiChannel && enableSpeakerDiarization) logPrefix.append(", ");
-                        if (enableSpeakerDiarization) logPrefix.append("Speaker ").append(prevSpeaker);
-                        logger.info(logPrefix + ": " + sb.toString().trim());
-                        sb.setLength(0);
-                    }
-
-                    sb.append(word.getText());
-                    prevSpeaker = currentSpeaker;
-                    prevChannel = currentChannel;
-                }
-
-                // 마지막 조합 출력
-                if (sb.length() > 0) {
-                    StringBuilder logPrefix = new StringBuilder();
-                    if (enableMultiChannel) logPrefix.append("Channel ").append(prevChannel);
-                    if (enableMultiChannel && enableSpeakerDiarization) logPrefix.append(", ");
-                    if (enableSpeakerDiarization) logPrefix.append("Speaker ").append(prevSpeaker);
-                    logger.info(logPrefix + ": " + sb.toString().trim());
-                }
+            public void onCompleted(SonioxASRSession session) {
+                logger.info("TranscribeStreamResponse onCompleted() results channel={}", channel);
 
-                synchronized (lock) {
-                    lock.notify();
-                }
+                finish();
             }
+        };
+    }
 
-        });
+    private void finish() {
+        if (remaining.decrementAndGet() == 0) {
+            assembler.complete();
+            done.countDown();
+        }
+    }
 
-        SpeechServiceOuterClass.TranscriptionConfig.Builder configBuilder = getConfigBuilder(
-                languageCode, useLowLatency, format, sampleRate, channels,
-                true, speakerDiarization, minSpeaker, maxSpeaker, boostWords, boostAmount, nonFinal);
+    public void recognize(String fileName) {
+        logger.info("recognize file : {}", fileName);
 
-        // Send the first request without data.
-        SpeechServiceOuterClass.TranscribeStreamRequest request =
-                SpeechServiceOuterClass.TranscribeStreamRequest.newBuilder()
-                        .setApiKey(apiKey)
-                        .setConfig(configBuilder)
-                        .build();
+        if (config == null) {
+            throw new IllegalStateException("stream is not set, yet");
+        }
 
-        stream.onNext(request);
+        boolean started = session != null;
+        if (!started && parallelChannels && config.getNumAudioChannels() > 1) {
+            started = recognizeChannels(fileName);
+        }
+        if (!started && sliceMs > 0) {
+            started = recognizeSlices(fileName);
+        }
+        if (!started) {
+            logger.info("file cannot be split, sending it as one stream : {}", fileName);
+            openSingleSession();
+        }
 
-        logger.info("connected !!");
+        if (session != null) {
+            // Read the file in chunks and send requests with data.
+            try {
+                long total = AudioFileReader.readChunks(fileName, chunkSizer::getChunkBytes, chunkSizer.getMaxChunkBytes(), memoryMap, chunk -> {
+                    session.send(chunk);
+                    chunkSizer.audioSent(chunk.size());
+                });
+                logger.info("uploaded bytes={} memoryMap={} chunkSize={}", total, memoryMap, chunkSizer.getChunkBytes());
+            } catch (IOException e) {
+                logger.error("upload() exception: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+
+            session.complete();
+        }
+
+        logger.info("recognized !!");
+        logger.info("Waiting for result...");
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        logger.info("Completed !!");
     }
 
-    public void recognize(String fileName) {
-        logger.info("recognize file : {}", fileName);
+    private ChannelSplitter.Layout probe(String fileName) {
+        try {
+            return ChannelSplitter.probe(fileName, config.getAudioFormat(), config.getSampleRateHertz(), config.getNumAudioChannels());
+        } catch (IOException e) {
+            logger.error("probe() exception: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
 
-        if (stream == null) {
-            throw new IllegalStateException("stream is not set, yet");
+    // channel 마다 mono session 을 열어 동시에 전송, 결과는 assembler 가 시간 순으로 합친다
+    private boolean recognizeChannels(String fileName) {
+        ChannelSplitter.Layout layout = probe(fileName);
+        if (layout == null || layout.getChannels() < 2) {
+            return false;
         }
 
-        // Read the file in chunks and send requests with data.
-        try (final FileInputStream fileStream = new FileInputStream(fileName)) {
+        SpeechServiceOuterClass.TranscriptionConfig channelConfig = config.toBuilder()
+                .setAudioFormat(layout.getFormat())
+                .setSampleRateHertz(layout.getSampleRate())
+                .setNumAudioChannels(1)
+                .setEnableSeparateRecognitionPerChannel(false)
+                .build();
+
+        int channels = layout.getChannels();
+        remaining.set(channels);
+        done = new CountDownLatch(1);
+        SonioxASRSession[] sessions = new SonioxASRSession[channels];
+        try {
+            for (int channel = 0; channel < channels; channel++) {
+                sessions[channel] = openSession(channelConfig, newListener(channel));
+            }
+
+            int chunkFrames = Math.max(1, chunkSizer.getMaxChunkBytes() / (layout.getBytesPerSample() * channels));
+            long total = ChannelSplitter.split(fileName, layout, chunkFrames, (channel, audio) -> sessions[channel].send(audio));
+            logger.info("uploaded bytes={} channels={} format={} sampleRate={}", total, channels, layout.getFormat(), layout.getSampleRate());
+        } catch (IOException | RuntimeException e) {
+            logger.error("upload() exception: " + e.getMessage());
+            abortChannels(sessions, String.valueOf(e.getMessage()));
+            throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+        }
 
-            byte[] buffer = new byte[BUFFER_SIZE];
+        for (SonioxASRSession channelSession : sessions) {
+            channelSession.complete();
+        }
+        return true;
+    }
 
-            int bytesRead;
-            while ((bytesRead = fileStream.read(buffer)) != -1) {
-                stream.onNext(SpeechServiceOuterClass.TranscribeStreamRequest.newBuilder()
-                        .setAudio(ByteString.copyFrom(buffer, 0, bytesRead))
-                        .build());
+    // 열린 session 은 취소하고(취소 callback 이 finish), 열지 못한 session 몫은 여기서 센다
+    private void abortChannels(SonioxASRSession[] sessions, String reason) {
+        int unopened = 0;
+        for (SonioxASRSession channelSession : sessions) {
+            if (channelSession == null) {
+                unopened++;
+            } else {
+                channelSession.cancel(reason);
             }
+        }
+        if (unopened > 0 && remaining.addAndGet(-unopened) == 0) {
+            assembler.complete();
+            done.countDown();
+        }
+    }
+
+    // 구간마다 session 을 열어 최대 sliceParallelism 개를 동시에 인식, 결과는 순서대로 이어 붙인다
+    private boolean recognizeSlices(String fileName) {
+        ChannelSplitter.Layout layout = probe(fileName);
+        if (layout == null) {
+            return false;
+        }
+
+        List<TimeSlicer.Slice> slices;
+        try {
+            slices = TimeSlicer.plan(fileName, layout, sliceMs, sliceOverlapMs, sliceSearchMs);
         } catch (IOException e) {
-            logger.error("upload() exception: " + e.getMessage());
+            logger.error("plan() exception: " + e.getMessage());
             throw new RuntimeException(e);
         }
+        if (slices.size() < 2) {
+            return false;
+        }
 
-        stream.onCompleted();
+        SpeechServiceOuterClass.TranscriptionConfig sliceConfig = config.toBuilder()
+                .setAudioFormat(layout.getFormat())
+                .setSampleRateHertz(layout.getSampleRate())
+                .setNumAudioChannels(layout.getChannels())
+                .setEnableSeparateRecognitionPerChannel(layout.getChannels() > 1)
+                .build();
 
-        logger.info("recognized !!");
-        logger.info("Waiting for result...");
+        SliceStitcher stitcher = new SliceStitcher(slices, assembler);
+        Semaphore permits = new Semaphore(sliceParallelism);
+        remaining.set(slices.size());
+        done = new CountDownLatch(1);
+        logger.info("recognizing slices={} parallelism={} sliceMs={} overlapMs={}", slices.size(), sliceParallelism, sliceMs, sliceOverlapMs);
 
-        synchronized (lock) {
+        for (TimeSlicer.Slice slice : slices) {
             try {
-                lock.wait();
+                permits.acquire();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for a slice session", e);
+            }
+
+            SonioxASRSession sliceSession;
+            try {
+                sliceSession = openSession(sliceConfig, newSliceListener(slice, stitcher, permits));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
             }
+
+            try {
+                TimeSlicer.read(fileName, slice, chunkSizer.getMaxChunkBytes(), sliceSession::send);
+            } catch (IOException e) {
+                logger.error("upload() exception: " + e.getMessage());
+                sliceSession.cancel(e.getMessage());
+                throw new RuntimeException(e);
+            }
+            sliceSession.complete();
+            logger.debug("slice sent index={} startMs={} bytes={}", slice.getIndex(), slice.getStartMs(), slice.getEndByte() - slice.getStartByte());
         }
+        return true;
+    }
 
-        logger.info("Completed !!");
+    private SonioxASRSessionListener newSliceListener(TimeSlicer.Slice slice, SliceStitcher stitcher, Semaphore permits) {
+        return new SonioxASRSessionListener() {
+            @Override
+            public void onResult(SonioxASRSession session, SpeechServiceOuterClass.Result result) {
+                stitcher.add(slice.getIndex(), result);
+            }
+
+            @Override
+            public void onError(SonioxASRSession session, Throwable throwable) {
+                logger.error("TranscribeStreamResponse onError() slice={} startMs={} message={}", slice.getIndex(), slice.getStartMs(), throwable.getMessage());
+                synchronized (results) {
+                    results.add(throwable.getMessage());
+                }
+                end();
+            }
+
+            @Override
+            public void onCompleted(SonioxASRSession session) {
+                logger.debug("TranscribeStreamResponse onCompleted() slice={}", slice.getIndex());
+                end();
+            }
+
+            private void end() {
+                stitcher.complete(slice.getIndex());
+                permits.release();
+                if (remaining.get() == 1) {
+                    logger.info("slices stitched, overlap words dropped={}", stitcher.getDroppedWords());
+                }
+                finish();
+            }
+        };
     }
 }
@@ -0,0 +1,265 @@
+package net.samsung.examples.connector;
+
+import com.google.protobuf.ByteString;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import net.samsung.examples.audio.AudioBuffer;
+import net.samsung.examples.audio.AudioSink;
+import net.samsung.examples.metrics.StreamLatencyTracker;
+import net.samsung.examples.sink.TranscriptEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceGrpc;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transcribes many participant audio streams on one TranscribeMeeting call.
+ * Every request gets the next seq_num of the call and the stream_id of its participant;
+ * audio of a participant is sent in segments marked with start_of_segment / end_of_segment.
+ * Responses are routed back to the participant by stream_id, and transcripts are emitted with the stream_id as channel.
+ */
+public class SonioxASRMeetingConnector extends SonioxASRConnector {
+    private static final Logger logger = LoggerFactory.getLogger(SonioxASRMeetingConnector.class);
+
+    private final ConcurrentMap<Integer, Participant> participants = new ConcurrentHashMap<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private FlowControlledSender<SpeechServiceOuterClass.TranscribeMeetingRequest> sender = null;
+    private SonioxChannelPool.Lease lease = null;
+    private SpeechServiceOuterClass.TranscriptionConfig config = null;
+    private StreamLatencyTracker callLatency = null;
+    private String languageCode = null;
+    private boolean nonFinal = false;
+
+    // seq_num 순서와 queue 순서가 같도록 sendLock 안에서 번호를 붙여 넣는다
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private int seqNum = 0;
+
+    public SonioxASRMeetingConnector(String address, int port, boolean useSSL, String apiKey) {
+        super(address, port, useSSL, apiKey);
+    }
+
+    public void connect(String languageCode, boolean useLowLatency, boolean nonFinal, String format, int sampleRate, int channels, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int defaultBoostAmount) {
+
+        if (sender != null) {
+            throw new IllegalStateException("meeting is already set");
+        }
+
+        this.languageCode = languageCode;
+        this.nonFinal = nonFinal;
+        // channel 은 참가자의 stream_id
+        setLabels(true, true);
+
+        config = configTemplate(
+                languageCode, useLowLatency, format, sampleRate, channels,
+                true, speakerDiarization, minSpeaker, maxSpeaker, boostWords, defaultBoostAmount, nonFinal).getConfig();
+
+        // 연결 시간과 송신 지연은 call 단위, 단어 지연은 참가자 단위로 측정
+        callLatency = newLatencyTracker(0);
+        sender = new FlowControlledSender<>(sendQueueBytes, overflowPolicy, request -> request.getAudio().size());
+        sender.setOnFirstReady(callLatency::connected);
+        sender.setOnStall(callLatency::sendStalled);
+        callLatency.connectStarted();
+        lease = acquireChannel();
+
+        SpeechServiceGrpc.newStub(lease.getChannel()).withExecutor(ConnectorThreads.shared().getCallbackExecutor()).transcribeMeeting(new ClientResponseObserver<SpeechServiceOuterClass.TranscribeMeetingRequest, SpeechServiceOuterClass.TranscribeMeetingResponse>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<SpeechServiceOuterClass.TranscribeMeetingRequest> requestStream) {
+                sender.attach(requestStream);
+            }
+
+            @Override
+            public void onNext(SpeechServiceOuterClass.TranscribeMeetingResponse response) {
+                handleResponse(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                io.grpc.Status status = io.grpc.Status.fromThrowable(t);
+                logger.error("onError: {}", status);
+                terminate();
+            }
+
+            @Override
+            public void onCompleted() {
+                logger.info("onCompleted participants={}", participants.size());
+                terminate();
+            }
+        });
+
+        // Send the first request without data.
+        sender.send(SpeechServiceOuterClass.TranscribeMeetingRequest.newBuilder()
+                .setApiKey(apiKey)
+                .setConfig(config)
+                .build());
+
+        logger.info("connect() requested");
+    }
+
+    /**
+     * Adds a participant, or returns the existing one with the same stream id.
+     */
+    public Participant join(int streamId) {
+        if (sender == null) {
+            throw new IllegalStateException("meeting is not set, yet");
+        }
+        return participants.computeIfAbsent(streamId, Participant::new);
+    }
+
+    public int getParticipantCount() {
+        return participants.size();
+    }
+
+    /**
+     * Ends every open segment and half-closes the call.
+     */
+    public void complete() {
+        if (sender == null) {
+            throw new IllegalStateException("meeting is not set, yet");
+        }
+
+        sendLock.lock();
+        try {
+            for (Participant participant : participants.values()) {
+                participant.endSegment();
+            }
+            sender.complete();
+        } finally {
+            sendLock.unlock();
+        }
+
+        logger.info("completed !!");
+    }
+
+    /**
+     * Waits until the server has sent the last result.
+     */
+    public boolean await(long timeoutMs) throws InterruptedException {
+        return done.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void handleResponse(SpeechServiceOuterClass.TranscribeMeetingResponse response) {
+        Participant participant = participants.get(response.getStreamId());
+        if (participant == null) {
+            logger.warn("response for unknown stream_id={} seq_num={}", response.getStreamId(), response.getSeqNum());
+            return;
+        }
+
+        if (!response.getError().isEmpty()) {
+            logger.error("stream_id={} seq_num={} error: {}", response.getStreamId(), response.getSeqNum(), response.getError());
+        }
+        if (response.hasResult()) {
+            participant.handleResult(response.getResult());
+        }
+        if (response.getEndOfSegment()) {
+            participant.transcriber.getSegmenter().flush();
+        }
+    }
+
+    private void terminate() {
+        sender.close();
+        for (Participant participant : participants.values()) {
+            participant.transcriber.getSegmenter().flush();
+        }
+        if (lease != null) {
+            lease.close();
+        }
+        logger.debug("meeting terminated sender={}", sender.getStats());
+        done.countDown();
+    }
+
+    // 요청 하나에 seq_num 을 붙여 queue 에 넣는다
+    private void send(SpeechServiceOuterClass.TranscribeMeetingRequest.Builder request) {
+        sendLock.lock();
+        try {
+            sender.send(request.setSeqNum(seqNum++).build());
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Audio source of one participant. Sending audio opens a segment; {@link #endSegment()} closes it.
+     * Response callbacks of all participants run on the call's callback thread.
+     */
+    public class Participant implements AudioSink {
+        private final int streamId;
+        private final ResultTranscriber transcriber;
+        private final StreamLatencyTracker latency = newLatencyTracker(config);
+        private boolean inSegment = false;
+
+        private Participant(int streamId) {
+            this.streamId = streamId;
+            this.transcriber = new ResultTranscriber(newSentenceSegmenter(languageCode, true, this::onSentence));
+        }
+
+        public int getStreamId() {
+            return streamId;
+        }
+
+        public void send(byte[] buffer, int offset, int length) {
+            send(ByteString.copyFrom(buffer, offset, length));
+        }
+
+        public void send(ByteString audio) {
+            latency.audioSent(audio.size());
+            sendLock.lock();
+            try {
+                SonioxASRMeetingConnector.this.send(SpeechServiceOuterClass.TranscribeMeetingRequest.newBuilder()
+                        .setStreamId(streamId)
+                        .setStartOfSegment(!inSegment)
+                        .setAudio(audio));
+                inSegment = true;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        /**
+         * Marks the end of the current segment, e.g. when the participant stops talking. No-op without an open segment.
+         */
+        public void endSegment() {
+            sendLock.lock();
+            try {
+                if (!inSegment) {
+                    return;
+                }
+                SonioxASRMeetingConnector.this.send(SpeechServiceOuterClass.TranscribeMeetingRequest.newBuilder()
+                        .setStreamId(streamId)
+                        .setEndOfSegment(true));
+                inSegment = false;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        @Override
+        public void write(AudioBuffer buffer) {
+            send(buffer.array(), 0, buffer.length());
+        }
+
+        @Override
+        public void complete() throws IOException {
+            endSegment();
+        }
+
+        // response 마다 final 단어는 문장 단위로 모으고, 진행 중인 문장을 출력
+        private void handleResult(SpeechServiceOuterClass.Result result) {
+            TranscriptEvent partial = transcriber.handle(result, streamId, nonFinal, latency);
+            if (partial != null) {
+                emit(partial);
+            }
+        }
+
+        private void onSentence(int speaker, String text, int startMs, int endMs) {
+            emit(TranscriptEvent.finalSentence(streamId, speaker, text, startMs, endMs));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package net.samsung.examples.connector;
+
+import com.google.protobuf.ByteString;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import net.samsung.examples.metrics.StreamLatencyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceGrpc;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One TranscribeStream call on a pooled channel with its own listener and lifecycle state.
+ */
+public class SonioxASRSession {
+    private static final Logger logger = LoggerFactory.getLogger(SonioxASRSession.class);
+
+    private final String id;
+    private final SonioxASRSessionListener listener;
+    private final AtomicReference<SessionState> state = new AtomicReference<>(SessionState.CREATED);
+
+    private final FlowControlledSender<SpeechServiceOuterClass.TranscribeStreamRequest> sender;
+    private SonioxChannelPool.Lease lease = null;
+    private StreamLatencyTracker latency = null;
+
+    SonioxASRSession(String id, SonioxASRSessionListener listener, long maxQueuedBytes, FlowControlledSender.OverflowPolicy overflowPolicy) {
+        this.id = id;
+        this.listener = listener;
+        this.sender = new FlowControlledSender<>(maxQueuedBytes, overflowPolicy, request -> request.getAudio().size());
+    }
+
+    /**
+     * Records connect time, time to first word and processing lag of this session. Must be set before start.
+     */
+    void setLatencyTracker(StreamLatencyTracker latency) {
+        this.latency = latency;
+    }
+
+    void start(SonioxChannelPool.Lease lease, String apiKey, SpeechServiceOuterClass.TranscriptionConfig config, Executor executor) {
+        if (!transition(SessionState.CREATED, SessionState.CONNECTING)) {
+            throw new IllegalStateException("session is already started : " + id);
+        }
+        this.lease = lease;
+        if (latency != null) {
+            latency.connectStarted();
+            sender.setOnFirstReady(latency::connected);
+            sender.setOnStall(latency::sendStalled);
+        }
+
+        try {
+            SpeechServiceGrpc.SpeechServiceStub stub = SpeechServiceGrpc.newStub(lease.getChannel());
+            if (executor != null) {
+                stub = stub.withExecutor(executor);
+            }
+
+            stub.transcribeStream(new ClientResponseObserver<SpeechServiceOuterClass.TranscribeStreamRequest, SpeechServiceOuterClass.TranscribeStreamResponse>() {
+                @Override
+                public void beforeStart(ClientCallStreamObserver<SpeechServiceOuterClass.TranscribeStreamRequest> requestStream) {
+                    sender.attach(requestStream);
+                }
+
+                @Override
+                public void onNext(SpeechServiceOuterClass.TranscribeStreamResponse response) {
+                    if (!response.hasResult()) {
+                        return;
+                    }
+                    if (latency != null) {
+                        SpeechServiceOuterClass.Result result = response.getResult();
+                        for (SpeechServiceOuterClass.Word word : result.getWordsList()) {
+                            latency.word(word.getIsFinal(), word.getStartMs());
+                        }
+                        latency.result(result.getFinalProcTimeMs(), result.getTotalProcTimeMs());
+                    }
+                    listener.onResult(SonioxASRSession.this, response.getResult());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    terminate(SessionState.FAILED);
+                    listener.onError(SonioxASRSession.this, t);
+                }
+
+                @Override
+                public void onCompleted() {
+                    terminate(SessionState.CLOSED);
+                    listener.onCompleted(SonioxASRSession.this);
+                }
+            });
+
+            // Send the first request without data.
+            sender.send(SpeechServiceOuterClass.TranscribeStreamRequest.newBuilder()
+                    .setApiKey(apiKey)
+                    .setConfig(config)
+                    .build());
+        } catch (RuntimeException e) {
+            terminate(SessionState.FAILED);
+            throw e;
+        }
+
+        transition(SessionState.CONNECTING, SessionState.OPEN);
+        logger.debug("session opened id={}", id);
+    }
+
+    public void send(byte[] buffer, int offset, int length) {
+        send(ByteString.copyFrom(buffer, offset, length));
+    }
+
+    /**
+     * Queues audio for sending. Blocks, drops or fails according to the overflow policy when the queue is full.
+     */
+    public void send(ByteString audio) {
+        checkOpen();
+        if (latency != null) {
+            latency.audioSent(audio.size());
+        }
+        sender.send(SpeechServiceOuterClass.TranscribeStreamRequest.newBuilder().setAudio(audio).build());
+    }
+
+    /**
+     * Half-closes the stream. The session is closed when the server has sent its last result.
+     */
+    public void complete() {
+        if (!transition(SessionState.OPEN, SessionState.COMPLETING)) {
+            throw new IllegalStateException("session is not open : " + id + " state=" + state.get());
+        }
+        sender.complete();
+    }
+
+    public void cancel(String reason) {
+        if (state.get().isTerminal()) {
+            return;
+        }
+        sender.cancel(reason);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SessionState getState() {
+        return state.get();
+    }
+
+    public FlowControlledSender<SpeechServiceOuterClass.TranscribeStreamRequest> getSender() {
+        return sender;
+    }
+
+    public boolean isTerminated() {
+        return state.get().isTerminal();
+    }
+
+    private void checkOpen() {
+        if (state.get() != SessionState.OPEN) {
+            throw new IllegalStateException("session is not open : " + id + " state=" + state.get());
+        }
+    }
+
+    private boolean transition(SessionState from, SessionState to) {
+        if (state.compareAndSet(from, to)) {
+            listener.onStateChanged(this, to);
+            return true;
+        }
+        return false;
+    }
+
+    private void terminate(SessionState terminal) {
+        SessionState prev;
+        do {
+            prev = state.get();
+            if (prev.isTerminal()) {
+                return;
+            }
+        } while (!state.compareAndSet(prev, terminal));
+
+        sender.close();
+        if (lease != null) {
+            lease.close();
+        }
+        logger.debug("session terminated id={} state={} sender={}", id, terminal, sender.getStats());
+        listener.onStateChanged(this, terminal);
+    }
+}
@@ -0,0 +1,20 @@
+package net.samsung.examples.connector;
+
+import soniox.speech_service.SpeechServiceOuterClass;
+
+/**
+ * Per-session callbacks. onResult/onCompleted/onError of one session are invoked sequentially.
+ */
+public interface SonioxASRSessionListener {
+
+    void onResult(SonioxASRSession session, SpeechServiceOuterClass.Result result);
+
+    default void onStateChanged(SonioxASRSession session, SessionState state) {
+    }
+
+    default void onCompleted(SonioxASRSession session) {
+    }
+
+    default void onError(SonioxASRSession session, Throwable t) {
+    }
+}
@@ -0,0 +1,144 @@
+package net.samsung.examples.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opens, feeds and closes many independent TranscribeStream sessions in one JVM.
+ * All sessions share the channel pool and the callback executor of {@link ConnectorThreads}.
+ */
+public class SonioxASRSessionManager extends SonioxASRConnector {
+    private static final Logger logger = LoggerFactory.getLogger(SonioxASRSessionManager.class);
+
+    private final ConcurrentMap<String, SonioxASRSession> sessions = new ConcurrentHashMap<>();
+    // session 이 끝나면(terminal state) 완료, shutdown 이 기다린다
+    private final ConcurrentMap<SonioxASRSession, CompletableFuture<Void>> terminations = new ConcurrentHashMap<>();
+    private volatile SpeechServiceOuterClass.TranscriptionConfig defaultConfig = null;
+    private volatile boolean closed = false;
+
+    public SonioxASRSessionManager(String address, int port, boolean useSSL, String apiKey) {
+        super(address, port, useSSL, apiKey);
+    }
+
+    /**
+     * Sets the default config used by {@link #openSession(SonioxASRSessionListener)}.
+     */
+    public void connect(String languageCode, boolean useLowLatency, boolean nonFinal, String format, int sampleRate, int channels, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int defaultBoostAmount) {
+        defaultConfig = configTemplate(
+                languageCode, useLowLatency, format, sampleRate, channels,
+                true, speakerDiarization, minSpeaker, maxSpeaker, boostWords, defaultBoostAmount, nonFinal).getConfig();
+    }
+
+    public SonioxASRSession openSession(SonioxASRSessionListener listener) {
+        if (defaultConfig == null) {
+            throw new IllegalStateException("default config is not set, yet");
+        }
+        return openSession(UUID.randomUUID().toString(), defaultConfig, listener);
+    }
+
+    public SonioxASRSession openSession(String sessionId, SpeechServiceOuterClass.TranscriptionConfig config, SonioxASRSessionListener listener) {
+        if (closed) {
+            throw new IllegalStateException("session manager is shut down");
+        }
+
+        SonioxASRSession session = new SonioxASRSession(sessionId, new SonioxASRSessionListener() {
+            @Override
+            public void onResult(SonioxASRSession session, SpeechServiceOuterClass.Result result) {
+                listener.onResult(session, result);
+            }
+
+            @Override
+            public void onStateChanged(SonioxASRSession session, SessionState state) {
+                if (state.isTerminal()) {
+                    sessions.remove(session.getId(), session);
+                    CompletableFuture<Void> termination = terminations.remove(session);
+                    if (termination != null) {
+                        termination.complete(null);
+                    }
+                }
+                listener.onStateChanged(session, state);
+            }
+
+            @Override
+            public void onCompleted(SonioxASRSession session) {
+                listener.onCompleted(session);
+            }
+
+            @Override
+            public void onError(SonioxASRSession session, Throwable t) {
+                listener.onError(session, t);
+            }
+        }, sendQueueBytes, overflowPolicy);
+
+        session.setLatencyTracker(newLatencyTracker(config));
+        if (sessions.putIfAbsent(sessionId, session) != null) {
+            throw new IllegalStateException("session is already open : " + sessionId);
+        }
+        terminations.put(session, new CompletableFuture<>());
+
+        try {
+            session.start(acquireChannel(), apiKey, config, ConnectorThreads.shared().getCallbackExecutor());
+        } catch (RuntimeException e) {
+            sessions.remove(sessionId, session);
+            terminations.remove(session);
+            throw e;
+        }
+
+        return session;
+    }
+
+    public SonioxASRSession getSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public Collection<SonioxASRSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Half-closes every open session and waits for their last results. The shared callback executor keeps running.
+     */
+    public void shutdown(long timeoutMs) throws InterruptedException {
+        closed = true;
+        for (SonioxASRSession session : getSessions()) {
+            try {
+                session.complete();
+            } catch (IllegalStateException e) {
+                logger.debug("session is not open id={} state={}", session.getId(), session.getState());
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(terminations.values().toArray(new CompletableFuture[0])).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("sessions still open after {}ms count={}", timeoutMs, sessions.size());
+        } catch (ExecutionException e) {
+            // terminations 는 정상 완료만 한다
+            throw new IllegalStateException(e);
+        }
+
+        List<SonioxASRSession> remaining = new ArrayList<>(sessions.values());
+        for (SonioxASRSession session : remaining) {
+            session.cancel("session manager shutdown");
+        }
+        if (!remaining.isEmpty()) {
+            logger.warn("cancelled sessions on shutdown count={}", remaining.size());
+        }
+    }
+}
@@ -1,142 +1,106 @@
 package net.samsung.examples.connector;
 
-import com.google.protobuf.ByteString;
-import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
+import net.samsung.examples.audio.AudioBuffer;
+import net.samsung.examples.audio.AudioSink;
+import net.samsung.examples.sink.TranscriptEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import soniox.speech_service.SpeechServiceGrpc;
 import soniox.speech_service.SpeechServiceOuterClass;
 
 import java.io.IOException;
 
-public class SonioxASRStreamConnector extends SonioxASRConnector {
+public class SonioxASRStreamConnector extends SonioxASRConnector implements AudioSink {
     private static final Logger logger = LoggerFactory.getLogger(SonioxASRStreamConnector.class);
 
-    private StringBuilder finalSpeech = new StringBuilder();
+    private ResultTranscriber transcriber;
+    private int channel = 0;
 
-    private StreamObserver<SpeechServiceOuterClass.TranscribeStreamRequest> stream = null;
+    private ResilientSession session = null;
 
     public SonioxASRStreamConnector(String address, int port, boolean useSSL, String apiKey) {
         super(address, port, useSSL, apiKey);
+        this.transcriber = new ResultTranscriber(newSentenceSegmenter(null, true, this::onSentence));
     }
 
     public void connect(String languageCode, boolean useLowLatency, boolean nonFinal, String format, int sampleRate, int channels, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int defaultBoostAmount) throws IOException {
 
-        if (stream != null) {
+        if (session != null) {
             throw new IllegalStateException("stream is already set");
         }
 
-        // Create the channel.
-        final ManagedChannel channel = useProxy ? getProxyChannel() : getNonProxyChannel(useSSL);
+        transcriber = new ResultTranscriber(newSentenceSegmenter(languageCode, true, this::onSentence));
+        setLabels(channels > 1, true);
+        chunkSizer = newChunkSizer(format, sampleRate, channels, useLowLatency);
 
-        // Create the stub.
-        SpeechServiceGrpc.SpeechServiceStub stub = SpeechServiceGrpc.newStub(channel);
-        stream = stub.transcribeStream(new StreamObserver<SpeechServiceOuterClass.TranscribeStreamResponse>() {
+        SpeechServiceOuterClass.TranscriptionConfig config = configTemplate(
+                languageCode, useLowLatency, format, sampleRate, channels,
+                true, speakerDiarization, minSpeaker, maxSpeaker, boostWords, defaultBoostAmount, nonFinal).getConfig();
+
+        SonioxASRSessionListener listener = new SonioxASRSessionListener() {
             @Override
-            public void onNext(SpeechServiceOuterClass.TranscribeStreamResponse response) {
-                if (!response.hasResult()) {
-                    return;
-                }
-
-                // local 변수
-                StringBuilder nonFinalSpeech = new StringBuilder();
-                int finalSpeaker = -1;
-                int currSpeaker = -1;
-
-                for (SpeechServiceOuterClass.Word word : response.getResult().getWordsList()) {
-
-                    if (word.getText().isEmpty()) {
-                        continue;
-                    }
-
-                    if (currSpeaker == -1) {
-                        finalSpeaker = currSpeaker = word.getSpeaker();
-                    }
-
-                    // 계속 단어를 기록하여 문장을 완성한다
-                    if (word.getIsFinal()) {
-                        if (finalSpeech.length() != 0 || !word.getText().equals(" ")) {
-
-                            //finalSpeech.append("(" + String.valueOf(word.getSpeaker()) + ")" + word.getText());
-                            finalSpeech.append(word.getText());
-                        }
-
-                        // Log the finalized sentence
-                        // If it's the final result and 2 seconds have passed, or punctuation is detected, then split the sentence
-                        if (word.getText().matches("[.!?。]") || finalSpeaker != word.getSpeaker()) {
-
-                            logger.info("speaker={} final=1 speech={}", finalSpeaker, finalSpeech.toString());
-
-                            // Log and clear
-                            finalSpeech = new StringBuilder();
-                        }
-                        finalSpeaker = currSpeaker = word.getSpeaker();
-                    } else {
-                        //nonFinalSpeech.append("(" + String.valueOf(word.getSpeaker()) + ")" + word.getText());
-                        nonFinalSpeech.append(word.getText());
-                        if (word.getSpeaker() != 0) {
-                            currSpeaker = word.getSpeaker();
-                        }
-                    }
-                }
-
-                // Log the final tentative sentence
-                if (nonFinal && currSpeaker != -1 && (finalSpeech.length() > 0 || nonFinalSpeech.length() > 0)) {
-                    logger.info("speaker={} final={} speech={}/{}", currSpeaker, nonFinalSpeech.length() > 0 ? "0" : "1", finalSpeech.toString(), nonFinalSpeech.toString());
-                }
+            public void onResult(SonioxASRSession session, SpeechServiceOuterClass.Result result) {
+                handleResult(result, nonFinal);
             }
 
             @Override
-            public void onCompleted() {
+            public void onCompleted(SonioxASRSession session) {
+                transcriber.getSegmenter().flush();
                 logger.info("onCompleted");
             }
 
             @Override
-            public void onError(Throwable t) {
-                if (finalSpeech.length() > 0) {
-                    // logging
-                    logger.info("speaker=? final=1 speech={}/", finalSpeech);
-                    finalSpeech = new StringBuilder();
-                }
+            public void onError(SonioxASRSession session, Throwable t) {
+                transcriber.getSegmenter().flush();
 
                 io.grpc.Status status = io.grpc.Status.fromThrowable(t);
                 logger.error("onError: {}", status);
             }
-        });
+        };
 
-        SpeechServiceOuterClass.TranscriptionConfig.Builder configBuilder = getConfigBuilder(
-                languageCode, useLowLatency, format, sampleRate, channels,
-                true, speakerDiarization, minSpeaker, maxSpeaker, boostWords, defaultBoostAmount, nonFinal);
+        session = new ResilientSession(l -> openSession(config, l), reconnectPolicy,
+                PcmFormat.bytesPerSecond(format, sampleRate, channels), PcmFormat.frameBytes(format, channels), listener);
+        session.start();
 
-        // Send the first request without data.
-        SpeechServiceOuterClass.TranscribeStreamRequest request = SpeechServiceOuterClass.TranscribeStreamRequest.newBuilder()
-                .setApiKey(apiKey)
-                .setConfig(configBuilder)
-                .build();
+        logger.info("connect() requested");
+    }
 
-        stream.onNext(request);
+    // response 마다 final 단어는 문장 단위로 모으고, 진행 중인 문장을 출력
+    void handleResult(SpeechServiceOuterClass.Result result, boolean nonFinal) {
+        channel = result.getChannel();
+        chunkSizer.result(result.getFinalProcTimeMs());
 
-        logger.info("connect() requested");
+        TranscriptEvent partial = transcriber.handle(result, channel, nonFinal, null);
+        if (partial != null) {
+            emit(partial);
+        }
+    }
+
+    private void onSentence(int speaker, String text, int startMs, int endMs) {
+        emit(TranscriptEvent.finalSentence(channel, speaker, text, startMs, endMs));
     }
 
     public void recognize(byte[] buffer, int bufferLen) throws IOException {
-        if (stream == null) {
+        if (session == null) {
             throw new IllegalStateException("stream is not set, yet");
         }
 
-        ByteString audioData = ByteString.copyFrom(buffer, 0, bufferLen);
-        SpeechServiceOuterClass.TranscribeStreamRequest request = SpeechServiceOuterClass.TranscribeStreamRequest.newBuilder().setAudio(audioData).build();
-        stream.onNext(request);
+        session.send(buffer, 0, bufferLen);
+        chunkSizer.audioSent(bufferLen);
+    }
+
+    @Override
+    public void write(AudioBuffer buffer) throws IOException {
+        recognize(buffer.array(), buffer.length());
     }
 
+    @Override
     public void complete() throws IOException {
-        if (stream == null) {
+        if (session == null) {
             throw new IllegalStateException("stream is not set, yet");
         }
 
-        stream.onCompleted();
-        stream = null;
+        session.complete();
+        session = null;
 
         logger.info("completed !!");
     }
@@ -1,47 +1,59 @@
 package net.samsung.examples.connector;
 
-import net.samsung.examples.connector.dto.SonioxASRStreamWebSocket.ASRWebSocketResponse;
-import net.samsung.examples.connector.dto.SonioxASRStreamWebSocket.SocketWordResponse;
-import net.samsung.examples.connector.dto.SonioxASRStreamWebSocket.SpeechContext;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.json.JSONException;
-import org.json.JSONObject;
+import net.samsung.examples.audio.AudioBuffer;
+import net.samsung.examples.audio.AudioSink;
+import net.samsung.examples.metrics.StreamLatencyTracker;
+import net.samsung.examples.sink.TranscriptEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class SonioxASRStreamWebSocketConnector extends SonioxASRConnector {
+public class SonioxASRStreamWebSocketConnector extends SonioxASRConnector implements AudioSink {
     private static final Logger logger = LoggerFactory.getLogger(SonioxASRStreamWebSocketConnector.class);
 
     private final String apiKey;
     private final HttpClient httpClient;
     private final URI wsUri;
-    private WebSocket webSocket;
-    private boolean isSocketOpen = false;
+    private volatile WebSocket webSocket;
+    private volatile boolean isSocketOpen = false;
+    private String startRequest;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // 재연결 상태는 ResilientSession 과 같은 ReplayTimeline 에 둔다. 이전 연결의 callback 은 generation 으로 거른다
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private ReplayTimeline timeline = new ReplayTimeline(ReconnectPolicy.disabled(), 0, 1);
+    private volatile int generation = 0;
+    private volatile boolean completing = false;
+    private volatile boolean reconnecting = false;
+    private final CompletableFuture<Void> started = new CompletableFuture<>();
+
+    private StreamLatencyTracker latency = newLatencyTracker(0);
 
-    private final StringBuilder finalSpeech = new StringBuilder();
     private final StringBuilder nonFinalSpeech = new StringBuilder();
+    private SentenceSegmenter segmenter;
+
+    // 메시지 단위 상태, decoder 가 단어마다 onWord 호출
+    private final WebSocketResponseDecoder decoder = new WebSocketResponseDecoder();
+    private final WebSocketResponseDecoder.WordSink wordSink = this::onWord;
+    private int finalWords = 0;
+    private int nonFinalWords = 0;
+    private int currSpeaker = -1;
 
     public SonioxASRStreamWebSocketConnector(String address, int port, boolean useSSL, String apiKey) {
         super(address, port, useSSL, apiKey);
-        ExecutorService executor = Executors.newCachedThreadPool();
         this.apiKey = apiKey;
-        this.httpClient = HttpClient.newBuilder().executor(executor).build();
+        // connector 마다 thread pool 을 만들지 않고 공유 callback pool 사용
+        this.httpClient = HttpClient.newBuilder().executor(ConnectorThreads.shared().getCallbackExecutor()).build();
         this.wsUri = URI.create(address + "/transcribe-websocket");
+        this.segmenter = newSentenceSegmenter(null, true, this::onSentence);
     }
 
     public void connect(String languageCode, boolean useLowLatency, boolean nonFinal, String format, int sampleRate, int channels, boolean speakerDiarization, int minSpeaker, int maxSpeaker, String boostWords, int defaultBoostAmount) {
@@ -50,74 +62,54 @@ public class SonioxASRStreamWebSocketConnector extends SonioxASRConnector {
             throw new IllegalStateException("WebSocket is already set");
         }
 
-        this.webSocket = this.httpClient.newWebSocketBuilder().buildAsync(wsUri, new WebSocket.Listener() {
+        segmenter = newSentenceSegmenter(languageCode, true, this::onSentence);
+        chunkSizer = newChunkSizer(format, sampleRate, channels, useLowLatency);
+
+        // Start request, 재연결 시에도 다시 보낸다. 같은 설정이면 만들어 둔 요청을 그대로 쓴다
+        this.startRequest = ConfigTemplate.of(new ConfigTemplate.Profile(
+                languageCode, useLowLatency, format, sampleRate, channels, true,
+                speakerDiarization, minSpeaker, maxSpeaker, boostWords, defaultBoostAmount, nonFinal, "")).getWebSocketStart(apiKey);
+        logger.debug(startRequest);
+
+        int bytesPerSecond = PcmFormat.bytesPerSecond(format, sampleRate, channels);
+        this.timeline = new ReplayTimeline(reconnectPolicy, bytesPerSecond, PcmFormat.frameBytes(format, channels));
+        this.latency = newLatencyTracker(bytesPerSecond);
+        this.webSocket = openWebSocket();
+        // 첫 audio 가 start 요청보다 먼저 나가지 않도록 기다린다
+        started.join();
+    }
+
+    private WebSocket openWebSocket() {
+        latency.connectStarted();
+        int connGeneration = ++generation;
+        return this.httpClient.newWebSocketBuilder().buildAsync(wsUri, new WebSocket.Listener() {
+            private boolean isStale() {
+                return connGeneration != generation;
+            }
+
             @Override
             public void onOpen(WebSocket webSocket) {
-                logger.info("=== WebSocket opened ===");
-                try {
-                    // Send start request
-                    JSONObject startRequest = new JSONObject();
-                    startRequest.put("api_key", apiKey);
-                    startRequest.put("audio_format", format);
-                    startRequest.put("sample_rate_hertz", sampleRate);
-                    startRequest.put("num_audio_channels", channels);
-                    startRequest.put("include_nonfinal", nonFinal);
-                    startRequest.put("min_num_speakers", minSpeaker);
-                    startRequest.put("max_num_speakers", maxSpeaker);
-                    startRequest.put("enable_streaming_speaker_diarization", speakerDiarization);
-                    startRequest.put("model", getDefaultModel(languageCode, useLowLatency));
-                    if (boostWords != null && !boostWords.isEmpty()) {
-                        String speechContext = objectMapper.writeValueAsString(getSpeechContext(boostWords.split(","), defaultBoostAmount));
-                        JSONObject speechContextObject = new JSONObject(speechContext);
-                        startRequest.put("speech_context", speechContextObject);
-                    }
-                    logger.info(startRequest.toString());
-
-                    webSocket.sendText(startRequest.toString(), true).join();
-
-                    isSocketOpen = true;
-
-                    WebSocket.Listener.super.onOpen(webSocket);
-                } catch (JSONException | JsonProcessingException e) {
-                    logger.error(e.getMessage());
-                    logger.error(Arrays.toString(e.getStackTrace()));
-                    throw new RuntimeException(e);
+                if (isStale()) {
+                    webSocket.abort();
+                    return;
                 }
+                logger.info("=== WebSocket opened ===");
+                latency.connected();
+                // start 요청과 replay 는 전송 완료를 기다리므로 공유 callback pool 이 아닌 session thread 에서 보낸다
+                ConnectorThreads.shared().startSessionThread("soniox-ws-start", () -> start(webSocket));
+
+                WebSocket.Listener.super.onOpen(webSocket);
             }
 
             @Override
             public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-                nonFinalSpeech.setLength(0);
-                int finalSpeaker = -1;
-                int currSpeaker = -1;
-
+                if (isStale()) {
+                    return WebSocket.Listener.super.onText(webSocket, data, last);
+                }
                 try {
-                    ASRWebSocketResponse response = objectMapper.readValue(data.toString(), ASRWebSocketResponse.class);
-
-                    boolean isFinal = !response.getFw().isEmpty() && response.getNfw().isEmpty();   // If fw exists and nfw is null -> final
-                    finalSpeech.append(response.getFw().stream()
-                            .map(SocketWordResponse::getT)
-                            .collect(Collectors.joining()));
-                    for (SocketWordResponse wordResponse : response.getNfw()) {
-                        if (currSpeaker == -1) {
-                            finalSpeaker = currSpeaker = wordResponse.getSpk();
-                        }
-
-                        nonFinalSpeech.append(wordResponse.getT());
-                    }
-
-                    if (finalSpeech.toString().matches(".*[.!?。]$")) {
-                        logger.info("speaker={} final=1 speech={}", finalSpeaker, finalSpeech);
-                        finalSpeech.setLength(0);
-                    } else {
-                        if (nonFinalSpeech.length() > 0 || finalSpeech.length() > 0) {
-                            logger.info("speaker={} final={} speech={}/{}", currSpeaker, nonFinalSpeech.length() > 0 ? "0" : "1", finalSpeech, nonFinalSpeech);
-                        }
-                        if (isFinal) finalSpeech.setLength(0);
-                    }
-
+                    handleText(data, last);
                     return WebSocket.Listener.super.onText(webSocket, data, last);
-                } catch (JsonProcessingException e) {
+                } catch (IOException e) {
                     logger.error(e.getMessage());
                     logger.error(Arrays.toString(e.getStackTrace()));
                     throw new RuntimeException(e);
@@ -126,65 +118,182 @@ public class SonioxASRStreamWebSocketConnector extends SonioxASRConnector {
 
             @Override
             public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+                if (isStale()) {
+                    return WebSocket.Listener.super.onClose(webSocket, statusCode, reason);
+                }
                 if (!reason.isEmpty()) {
                     logger.error("Close error: {}", reason);
                 }
+                if (statusCode == WebSocket.NORMAL_CLOSURE || !scheduleReconnect("close " + statusCode + " " + reason)) {
+                    closed("close " + statusCode + " " + reason);
+                }
 
                 return WebSocket.Listener.super.onClose(webSocket, statusCode, reason);
             }
 
             @Override
             public void onError(WebSocket webSocket, Throwable error) {
+                if (isStale()) {
+                    return;
+                }
                 logger.error("On Error: {}", error.getMessage());
+                if (!scheduleReconnect(String.valueOf(error.getMessage()))) {
+                    closed(String.valueOf(error.getMessage()));
+                }
             }
         }).join();
     }
 
-    private SpeechContext getSpeechContext(String[] boostWords, Integer defaultBoostAmount) {
-        SpeechContext speech_context = new SpeechContext();
-        speech_context.setEntries(new ArrayList<>());
-
-        if (defaultBoostAmount == null) {
-            defaultBoostAmount = 0;
+    private void start(WebSocket target) {
+        try {
+            target.sendText(startRequest, true).join();
+
+            sendLock.lock();
+            try {
+                this.webSocket = target;
+                if (reconnecting) {
+                    // 마지막 final 처리 시점 이후의 audio 를 새 연결로 다시 보낸다
+                    timeline.reconnected((data, offset, length) ->
+                            target.sendBinary(ByteBuffer.wrap(data, offset, length), true).join());
+                    reconnecting = false;
+                }
+                isSocketOpen = true;
+                if (completing) {
+                    target.sendClose(WebSocket.NORMAL_CLOSURE, "WebSocket normally closed");
+                }
+            } finally {
+                sendLock.unlock();
+            }
+            started.complete(null);
+        } catch (RuntimeException e) {
+            // 연결 오류는 listener 의 onError/onClose 에서 재연결한다
+            logger.warn("start request failed : {}", e.getMessage());
+            started.completeExceptionally(e);
         }
+    }
+
+    // 더 이상 재연결하지 않는다. start 전이면 connect() 를 깨운다
+    private void closed(String cause) {
+        segmenter.flush();
+        started.completeExceptionally(new IllegalStateException("WebSocket closed before start : " + cause));
+    }
 
-        int i = 0;
-        for (String word : boostWords) {
-            if (word.equals(" ") || word.isEmpty()) {
-                continue;
+    private boolean scheduleReconnect(String cause) {
+        isSocketOpen = false;
+        int attempt = completing ? 0 : timeline.nextAttempt();
+        if (attempt == 0) {
+            return false;
+        }
+        reconnecting = true;
+        long backoffMs = timeline.backoffMs(attempt);
+        logger.warn("WebSocket lost, reconnecting attempt={} backoffMs={} ackMs={} : {}", attempt, backoffMs, timeline.getAckMs(), cause);
+
+        ReplayTimeline.schedule(() -> {
+            decoder.reset();
+            try {
+                openWebSocket();
+            } catch (RuntimeException e) {
+                logger.warn("reconnect failed : {}", e.getMessage());
+                if (!scheduleReconnect(e.getMessage())) {
+                    closed(e.getMessage());
+                }
             }
-            String[] splitValues = word.split(":");
+        }, backoffMs);
+        return true;
+    }
 
-            System.out.println("[" + i + "] Phrases:" + splitValues[0]);
-            System.out.println("[" + i + "] Boost:" + (splitValues.length == 2 ? Double.parseDouble(splitValues[1]) : defaultBoostAmount));
+    // 수신 frame 을 모아 메시지가 완성되면 final 단어는 문장 단위로 모으고, 진행 중인 문장을 출력
+    void handleText(CharSequence data, boolean last) throws IOException {
+        if (!decoder.append(data, last, wordSink)) {
+            return;
+        }
+        long offsetMs = timeline.getOffsetMs();
+        timeline.ack(0, decoder.getFinalProcTimeMs() + offsetMs);
+        latency.result(decoder.getFinalProcTimeMs() + offsetMs, decoder.getTotalProcTimeMs() + offsetMs);
+        chunkSizer.result(decoder.getFinalProcTimeMs() + offsetMs);
+        if (finalWords > 0 || nonFinalWords > 0) {
+            timeline.resetAttempts();
+        }
 
-            // Create SpeechContextEntry
-            SpeechContext.SpeechContextEntry entry = new SpeechContext.SpeechContextEntry();
-            entry.setPhrases(List.of(splitValues[0]));
-            entry.setBoost(splitValues.length == 2 ? Double.parseDouble(splitValues[1]) : defaultBoostAmount);
+        boolean isFinal = finalWords > 0 && nonFinalWords == 0;   // If fw exists and nfw is empty -> final
+        if (isFinal) {
+            segmenter.flush();
+        } else if (nonFinalSpeech.length() > 0 || segmenter.hasPending()) {
+            emit(TranscriptEvent.partial(0, currSpeaker, segmenter.getPending().toString(), nonFinalSpeech.toString()));
+        }
 
-            // Add SpeechContextEntry
-            speech_context.getEntries().add(entry);
+        // 다음 메시지를 위해 초기화
+        nonFinalSpeech.setLength(0);
+        finalWords = 0;
+        nonFinalWords = 0;
+        currSpeaker = -1;
+    }
 
-            i++;
+    private void onWord(boolean isFinal, char[] text, int offset, int length, int startMs, int durationMs, int speaker) {
+        startMs += (int) timeline.getOffsetMs();
+        latency.word(isFinal, startMs);
+        if (isFinal) {
+            // 재연결 후 다시 인식된 final 단어는 버린다
+            if (timeline.isRepeatedFinal(0, startMs)) {
+                return;
+            }
+            timeline.finalWord(0, startMs + durationMs);
+            finalWords++;
+            segmenter.addFinal(text, offset, length, startMs, durationMs, speaker);
+        } else {
+            if (currSpeaker == -1) {
+                currSpeaker = speaker;
+            }
+            nonFinalWords++;
+            nonFinalSpeech.append(text, offset, length);
         }
+    }
 
-        return speech_context;
+    private void onSentence(int speaker, String text, int startMs, int endMs) {
+        emit(TranscriptEvent.finalSentence(0, speaker, text, startMs, endMs));
     }
 
     public void recognize(byte[] buffer, int bufferLen) {
-        ByteBuffer audioData = ByteBuffer.allocate(bufferLen);
-        audioData.put(buffer);
-        audioData.flip();
-        if (webSocket != null && isSocketOpen && audioData.hasRemaining()) {
-            webSocket.sendBinary(audioData, true);
-        } else {
-            logger.warn("WebSocket is not ready of empty buffer.");
+        recognize(ByteBuffer.wrap(buffer, 0, bufferLen));
+    }
+
+    /**
+     * Sends the audio and waits until the WebSocket has consumed it, so the buffer can be reused on return.
+     */
+    public void recognize(ByteBuffer audioData) {
+        sendLock.lock();
+        try {
+            if (audioData.hasRemaining()) {
+                timeline.append(audioData);
+            }
+            if (webSocket != null && isSocketOpen && audioData.hasRemaining()) {
+                latency.audioSent(audioData.remaining());
+                chunkSizer.audioSent(audioData.remaining());
+                webSocket.sendBinary(audioData, true).join();
+            } else if (!reconnecting) {
+                logger.warn("WebSocket is not ready of empty buffer.");
+            }
+        } finally {
+            sendLock.unlock();
         }
     }
 
+    @Override
+    public void write(AudioBuffer buffer) {
+        recognize(buffer.byteBuffer());
+    }
+
+    @Override
     public void complete() {
-        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "WebSocket normally closed");
+        sendLock.lock();
+        try {
+            completing = true;
+            if (isSocketOpen) {
+                webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "WebSocket normally closed");
+            }
+        } finally {
+            sendLock.unlock();
+        }
     }
 
 }
@@ -0,0 +1,284 @@
+package net.samsung.examples.connector;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Shared pool of gRPC channels keyed on host/port/TLS/proxy.
+ * Each channel is one HTTP/2 connection that multiplexes up to {@code maxStreamsPerChannel} TranscribeStream calls.
+ */
+public class SonioxChannelPool {
+    private static final Logger logger = LoggerFactory.getLogger(SonioxChannelPool.class);
+
+    public static final int DEFAULT_MAX_CHANNELS_PER_KEY = 4;
+    public static final int DEFAULT_MAX_STREAMS_PER_CHANNEL = 100;
+    public static final long DEFAULT_KEEP_ALIVE_MS = 30_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 60_000;
+
+    private static SonioxChannelPool shared;
+
+    private final int maxChannelsPerKey;
+    private final int maxStreamsPerChannel;
+    private final long keepAliveMs;
+    private final long idleTimeoutMs;
+
+    private final Map<ChannelKey, List<PooledChannel>> channels = new HashMap<>();
+    private final ScheduledExecutorService evictor;
+    private boolean closed = false;
+
+    public SonioxChannelPool(int maxChannelsPerKey, int maxStreamsPerChannel, long keepAliveMs, long idleTimeoutMs) {
+        if (maxChannelsPerKey <= 0 || maxStreamsPerChannel <= 0) {
+            throw new IllegalArgumentException("pool size must be positive");
+        }
+        this.maxChannelsPerKey = maxChannelsPerKey;
+        this.maxStreamsPerChannel = maxStreamsPerChannel;
+        this.keepAliveMs = keepAliveMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "soniox-channel-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, idleTimeoutMs / 2);
+        this.evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The pool of the connectors, created with the default settings on first use.
+     *
+     * @throws IllegalStateException once the shared pool is shut down, until {@link #configure} replaces it
+     */
+    public static synchronized SonioxChannelPool shared() {
+        if (shared == null) {
+            shared = new SonioxChannelPool(DEFAULT_MAX_CHANNELS_PER_KEY, DEFAULT_MAX_STREAMS_PER_CHANNEL, DEFAULT_KEEP_ALIVE_MS, DEFAULT_IDLE_TIMEOUT_MS);
+        }
+        if (shared.isClosed()) {
+            throw new IllegalStateException("shared channel pool is closed");
+        }
+        return shared;
+    }
+
+    /**
+     * Shuts down the shared pool if one was created. Does nothing when it is already shut down.
+     */
+    public static void shutdownShared() {
+        SonioxChannelPool pool;
+        synchronized (SonioxChannelPool.class) {
+            pool = shared;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Replaces the shared pool settings. Channels of the previous shared pool are shut down.
+     */
+    public static synchronized void configure(int maxChannelsPerKey, int maxStreamsPerChannel, long keepAliveMs, long idleTimeoutMs) {
+        SonioxChannelPool previous = shared;
+        shared = new SonioxChannelPool(maxChannelsPerKey, maxStreamsPerChannel, keepAliveMs, idleTimeoutMs);
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    public Lease acquire(ChannelKey key, Supplier<ManagedChannelBuilder<?>> factory) {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("channel pool is closed");
+            }
+
+            List<PooledChannel> list = channels.computeIfAbsent(key, k -> new ArrayList<>());
+            list.removeIf(pooled -> pooled.channel.isShutdown());
+
+            // 가장 적은 stream 을 가진 channel 선택
+            PooledChannel leastLoaded = null;
+            for (PooledChannel pooled : list) {
+                if (leastLoaded == null || pooled.activeStreams < leastLoaded.activeStreams) {
+                    leastLoaded = pooled;
+                }
+            }
+
+            if (leastLoaded == null || (leastLoaded.activeStreams >= maxStreamsPerChannel && list.size() < maxChannelsPerKey)) {
+                leastLoaded = new PooledChannel(newChannel(factory));
+                list.add(leastLoaded);
+                logger.info("channel opened key={} channels={}", key, list.size());
+            } else if (leastLoaded.activeStreams >= maxStreamsPerChannel) {
+                logger.warn("channel pool is saturated key={} streams={}", key, leastLoaded.activeStreams);
+            }
+
+            leastLoaded.activeStreams++;
+            return new Lease(leastLoaded);
+        }
+    }
+
+    private ManagedChannel newChannel(Supplier<ManagedChannelBuilder<?>> factory) {
+        ManagedChannelBuilder<?> builder = factory.get();
+        if (keepAliveMs > 0) {
+            builder.keepAliveTime(keepAliveMs, TimeUnit.MILLISECONDS);
+            builder.keepAliveTimeout(Math.max(keepAliveMs / 3, 1_000), TimeUnit.MILLISECONDS);
+        }
+        if (idleTimeoutMs > 0) {
+            builder.idleTimeout(idleTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        return builder.build();
+    }
+
+    private synchronized void release(PooledChannel pooled) {
+        pooled.activeStreams--;
+        pooled.lastReleasedAt = System.currentTimeMillis();
+    }
+
+    private void evictIdle() {
+        List<ManagedChannel> evicted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<ChannelKey, List<PooledChannel>>> it = channels.entrySet().iterator();
+            while (it.hasNext()) {
+                List<PooledChannel> list = it.next().getValue();
+                list.removeIf(pooled -> {
+                    if (pooled.channel.isShutdown()) {
+                        return true;
+                    }
+                    if (idleTimeoutMs > 0 && pooled.activeStreams == 0 && now - pooled.lastReleasedAt > idleTimeoutMs) {
+                        evicted.add(pooled.channel);
+                        return true;
+                    }
+                    return false;
+                });
+                if (list.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+
+        for (ManagedChannel channel : evicted) {
+            channel.shutdown();
+        }
+        if (!evicted.isEmpty()) {
+            logger.info("evicted idle channels count={} open={}", evicted.size(), getOpenChannelCount());
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public void shutdown() {
+        List<ManagedChannel> all = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (List<PooledChannel> list : channels.values()) {
+                for (PooledChannel pooled : list) {
+                    all.add(pooled.channel);
+                }
+            }
+            channels.clear();
+        }
+        evictor.shutdownNow();
+
+        for (ManagedChannel channel : all) {
+            channel.shutdown();
+        }
+        for (ManagedChannel channel : all) {
+            try {
+                if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                    channel.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                channel.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("channel pool shutdown channels={}", all.size());
+    }
+
+    // metrics
+
+    public synchronized int getOpenChannelCount() {
+        int count = 0;
+        for (List<PooledChannel> list : channels.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+
+    public synchronized int getActiveStreamCount() {
+        int count = 0;
+        for (List<PooledChannel> list : channels.values()) {
+            for (PooledChannel pooled : list) {
+                count += pooled.activeStreams;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Active stream count of each open channel, grouped by channel key.
+     */
+    public synchronized Map<String, List<Integer>> getStreamsPerChannel() {
+        Map<String, List<Integer>> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<ChannelKey, List<PooledChannel>> entry : channels.entrySet()) {
+            List<Integer> streams = new ArrayList<>();
+            for (PooledChannel pooled : entry.getValue()) {
+                streams.add(pooled.activeStreams);
+            }
+            snapshot.put(entry.getKey().toString(), streams);
+        }
+        return snapshot;
+    }
+
+    @Value
+    public static class ChannelKey {
+        String address;
+        int port;
+        boolean useSSL;
+        boolean useProxy;
+        String proxyHost;
+        int proxyPort;
+    }
+
+    private static class PooledChannel {
+        private final ManagedChannel channel;
+        private int activeStreams = 0;
+        private long lastReleasedAt = System.currentTimeMillis();
+
+        private PooledChannel(ManagedChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    public class Lease implements AutoCloseable {
+        private final PooledChannel pooled;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(PooledChannel pooled) {
+            this.pooled = pooled;
+        }
+
+        public ManagedChannel getChannel() {
+            return pooled.channel;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(pooled);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package net.samsung.examples.connector;
+
+import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceGrpc;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps named speech contexts on the server equal to the local boost words.
+ * Each context is checked once per server, API key and content; it is created when missing and updated when it differs.
+ * Callers for the same key wait for the one check in flight, callers for other keys do not.
+ */
+final class SpeechContextRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SpeechContextRegistry.class);
+
+    private static final long DEADLINE_MS = 10_000;
+
+    // context 는 내용으로 비교한다 (protobuf equals)
+    @Value
+    private static class SyncKey {
+        String authority;
+        String apiKey;
+        SpeechServiceOuterClass.SpeechContext context;
+    }
+
+    private static final ConcurrentMap<SyncKey, CompletableFuture<Void>> synced = new ConcurrentHashMap<>();
+
+    private SpeechContextRegistry() {
+    }
+
+    static void ensure(Channel channel, String apiKey, SpeechServiceOuterClass.SpeechContext context) {
+        SyncKey key = new SyncKey(channel.authority(), apiKey, context);
+        CompletableFuture<Void> sync = new CompletableFuture<>();
+        CompletableFuture<Void> existing = synced.putIfAbsent(key, sync);
+        if (existing != null) {
+            try {
+                existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+            return;
+        }
+
+        try {
+            sync(channel, apiKey, context);
+            sync.complete(null);
+        } catch (RuntimeException e) {
+            // 실패는 기억하지 않고 다음 호출에서 다시 확인
+            synced.remove(key, sync);
+            sync.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static void sync(Channel channel, String apiKey, SpeechServiceOuterClass.SpeechContext context) {
+        SpeechServiceGrpc.SpeechServiceBlockingStub stub = SpeechServiceGrpc.newBlockingStub(channel)
+                .withDeadlineAfter(DEADLINE_MS, TimeUnit.MILLISECONDS);
+        SpeechServiceOuterClass.SpeechContext current = null;
+        try {
+            current = stub.getSpeechContext(SpeechServiceOuterClass.GetSpeechContextRequest.newBuilder()
+                    .setApiKey(apiKey)
+                    .setName(context.getName())
+                    .build()).getSpeechContext();
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() != Status.Code.NOT_FOUND) {
+                throw e;
+            }
+        }
+
+        if (current == null) {
+            stub.createSpeechContext(SpeechServiceOuterClass.CreateSpeechContextRequest.newBuilder()
+                    .setApiKey(apiKey)
+                    .setSpeechContext(context)
+                    .build());
+            logger.info("speech context created name={} entries={}", context.getName(), context.getEntriesCount());
+        } else if (!current.getEntriesList().equals(context.getEntriesList())) {
+            stub.updateSpeechContext(SpeechServiceOuterClass.UpdateSpeechContextRequest.newBuilder()
+                    .setApiKey(apiKey)
+                    .setSpeechContext(context)
+                    .build());
+            logger.info("speech context updated name={} entries={}", context.getName(), context.getEntriesCount());
+        } else {
+            logger.debug("speech context up to date name={}", context.getName());
+        }
+    }
+}
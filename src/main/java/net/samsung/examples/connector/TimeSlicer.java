@@ -0,0 +1,153 @@
+package net.samsung.examples.connector;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import lombok.Value;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Cuts a long PCM/WAV file into overlapping slices that can be recognized on concurrent sessions.
+ * Cut points are moved to the quietest 20ms frame near each nominal boundary (16-bit PCM only),
+ * and every slice is extended by {@code overlapMs} on both sides so words at a cut are heard whole by one of them.
+ */
+public final class TimeSlicer {
+
+    private static final int ENERGY_FRAME_MS = 20;
+
+    /**
+     * One slice. Words starting in [{@code ownStartMs}, {@code ownEndMs}) belong to it; the rest of the audio is overlap.
+     */
+    @Value
+    public static class Slice {
+        int index;
+        long startByte;
+        long endByte;
+        long startMs;
+        long ownStartMs;
+        long ownEndMs;
+
+        public boolean owns(long absoluteMs) {
+            return absoluteMs >= ownStartMs && absoluteMs < ownEndMs;
+        }
+    }
+
+    private TimeSlicer() {
+    }
+
+    /**
+     * @param searchMs how far around each nominal boundary to look for silence
+     */
+    public static List<Slice> plan(String fileName, ChannelSplitter.Layout layout, long sliceMs, long overlapMs, long searchMs) throws IOException {
+        int frameBytes = layout.getBytesPerSample() * layout.getChannels();
+        long bytesPerSecond = (long) frameBytes * layout.getSampleRate();
+        long totalFrames = layout.getDataLength() / frameBytes;
+        long totalMs = totalFrames * 1000 / layout.getSampleRate();
+
+        List<Long> cutsMs = new ArrayList<>();
+        cutsMs.add(0L);
+        try (FileChannel file = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            for (long nominal = sliceMs; nominal < totalMs - sliceMs / 2; nominal += sliceMs) {
+                long cut = "pcm_s16le".equals(layout.getFormat()) ? quietestMs(file, layout, nominal, searchMs) : nominal;
+                if (cut > cutsMs.get(cutsMs.size() - 1)) {
+                    cutsMs.add(cut);
+                }
+            }
+        }
+        cutsMs.add(totalMs);
+
+        List<Slice> slices = new ArrayList<>();
+        for (int i = 0; i + 1 < cutsMs.size(); i++) {
+            long ownStart = cutsMs.get(i);
+            long ownEnd = cutsMs.get(i + 1);
+            long startMs = Math.max(0, ownStart - overlapMs);
+            long endMs = Math.min(totalMs, ownEnd + overlapMs);
+            slices.add(new Slice(i,
+                    layout.getDataOffset() + toFrame(startMs, layout) * frameBytes,
+                    layout.getDataOffset() + Math.min(totalFrames, toFrame(endMs, layout)) * frameBytes,
+                    startMs, ownStart, i + 2 == cutsMs.size() ? Long.MAX_VALUE : ownEnd));
+        }
+        return slices;
+    }
+
+    /**
+     * Passes the audio of a slice in chunks of at most {@code chunkSize} bytes.
+     */
+    public static void read(String fileName, Slice slice, int chunkSize, Consumer<ByteString> consumer) throws IOException {
+        try (FileChannel file = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long position = slice.getStartByte();
+            while (position < slice.getEndByte()) {
+                ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(chunkSize, slice.getEndByte() - position));
+                while (chunk.hasRemaining()) {
+                    if (file.read(chunk, position + chunk.position()) < 0) {
+                        break;
+                    }
+                }
+                if (chunk.position() == 0) {
+                    break;
+                }
+                position += chunk.position();
+                chunk.flip();
+                consumer.accept(UnsafeByteOperations.unsafeWrap(chunk));
+            }
+        }
+    }
+
+    // nominal ± searchMs 안에서 에너지가 가장 작은 frame 의 시작 시간
+    // data chunk 뒤의 RIFF chunk 는 읽지 않는다
+    private static long quietestMs(FileChannel file, ChannelSplitter.Layout layout, long nominalMs, long searchMs) throws IOException {
+        int frameBytes = 2 * layout.getChannels();
+        long fromMs = Math.max(0, nominalMs - searchMs);
+        long fromByte = layout.getDataOffset() + toFrame(fromMs, layout) * frameBytes;
+        long dataEnd = layout.getDataOffset() + layout.getDataLength() / frameBytes * frameBytes;
+        int energyFrameBytes = (int) Math.max(1, toFrame(ENERGY_FRAME_MS, layout)) * frameBytes;
+        long windowBytes = Math.min(Math.max(toFrame(2 * searchMs, layout) * frameBytes, energyFrameBytes), dataEnd - fromByte);
+        if (windowBytes < energyFrameBytes) {
+            return nominalMs;
+        }
+
+        ByteBuffer window = ByteBuffer.allocate((int) windowBytes);
+        while (window.hasRemaining()) {
+            if (file.read(window, fromByte + window.position()) < 0) {
+                break;
+            }
+        }
+        byte[] data = window.array();
+        int length = window.position();
+
+        long bestEnergy = Long.MAX_VALUE;
+        int bestOffset = -1;
+        long bestDistance = Long.MAX_VALUE;
+        for (int offset = 0; offset + energyFrameBytes <= length; offset += energyFrameBytes) {
+            long energy = 0;
+            for (int i = offset; i + 1 < offset + energyFrameBytes; i += 2) {
+                int sample = (short) ((data[i] & 0xff) | (data[i + 1] << 8));
+                energy += (long) sample * sample;
+            }
+            // 에너지가 같으면 nominal 에 가까운 쪽
+            long distance = Math.abs(fromByte + offset - (layout.getDataOffset() + toFrame(nominalMs, layout) * frameBytes));
+            if (energy < bestEnergy || (energy == bestEnergy && distance < bestDistance)) {
+                bestEnergy = energy;
+                bestOffset = offset;
+                bestDistance = distance;
+            }
+        }
+        if (bestOffset < 0) {
+            return nominalMs;
+        }
+        // 조용한 frame 의 가운데에서 자른다
+        long frame = toFrame(fromMs, layout) + (bestOffset + energyFrameBytes / 2) / frameBytes;
+        return frame * 1000 / layout.getSampleRate();
+    }
+
+    private static long toFrame(long ms, ChannelSplitter.Layout layout) {
+        return ms * layout.getSampleRate() / 1000;
+    }
+}
@@ -0,0 +1,161 @@
+package net.samsung.examples.connector;
+
+import net.samsung.examples.connector.dto.WordStore;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Builds channel/speaker segments from final words as results arrive.
+ * Each channel keeps a small columnar buffer of final words that are merged in start time order with a min-heap.
+ * A word is released once every other channel has progressed past it, or when the pending limit is hit.
+ */
+public class TranscriptAssembler {
+
+    public interface SegmentListener {
+        void onSegment(int channel, int speaker, String text);
+    }
+
+    private final boolean splitByChannel;
+    private final boolean splitBySpeaker;
+    private final int maxPendingWords;
+    private final SentenceBoundary boundary;
+    private final SegmentListener listener;
+
+    private WordStore[] pending;
+    private int[] watermark;
+    private final PriorityQueue<Integer> heads;
+    private int pendingWords = 0;
+
+    private final StringBuilder segment = new StringBuilder();
+    private int segmentChannel = -1;
+    private int segmentSpeaker = -1;
+
+    public TranscriptAssembler(int channels, boolean splitByChannel, boolean splitBySpeaker, int maxPendingWords, SegmentListener listener) {
+        this(channels, splitByChannel, splitBySpeaker, maxPendingWords, SentenceBoundary.DEFAULT, listener);
+    }
+
+    public TranscriptAssembler(int channels, boolean splitByChannel, boolean splitBySpeaker, int maxPendingWords, SentenceBoundary boundary, SegmentListener listener) {
+        this.splitByChannel = splitByChannel;
+        this.splitBySpeaker = splitBySpeaker;
+        this.maxPendingWords = Math.max(1, maxPendingWords);
+        this.boundary = boundary;
+        this.listener = listener;
+        this.heads = new PriorityQueue<>((a, b) -> Integer.compare(pending[a].getStartMs(0), pending[b].getStartMs(0)));
+        allocate(Math.max(1, channels));
+    }
+
+    public void add(SpeechServiceOuterClass.Result result) {
+        add(result.getChannel(), result);
+    }
+
+    /**
+     * Adds a result under the given channel, e.g. when each channel was recognized on its own mono stream.
+     */
+    public synchronized void add(int channel, SpeechServiceOuterClass.Result result) {
+        if (channel >= pending.length) {
+            allocate(channel + 1);
+        }
+
+        for (SpeechServiceOuterClass.Word word : result.getWordsList()) {
+            if (!word.getIsFinal()) {
+                continue;
+            }
+            add(channel, word.getSpeaker(), word.getText(), word.getStartMs(), word.getDurationMs());
+        }
+
+        // final 처리 시간까지는 이 channel 에서 더 이른 final 단어가 오지 않는다
+        watermark[channel] = Math.max(watermark[channel], result.getFinalProcTimeMs());
+
+        release(false);
+    }
+
+    private void add(int channel, int speaker, String text, int startMs, int durationMs) {
+        WordStore store = pending[channel];
+        boolean wasEmpty = store.isEmpty();
+        store.add(channel, speaker, startMs, durationMs, text);
+        pendingWords++;
+        watermark[channel] = Math.max(watermark[channel], startMs);
+
+        if (wasEmpty) {
+            heads.add(channel);
+        }
+    }
+
+    /**
+     * Releases every pending word and the open segment.
+     */
+    public synchronized void complete() {
+        release(true);
+        flushSegment();
+    }
+
+    private void release(boolean all) {
+        while (!heads.isEmpty()) {
+            int channel = heads.peek();
+            WordStore store = pending[channel];
+
+            if (!all && pendingWords <= maxPendingWords && !isSafe(channel, store.getStartMs(0))) {
+                break;
+            }
+
+            heads.poll();
+            append(store);
+            store.removeFirst();
+            pendingWords--;
+            if (!store.isEmpty()) {
+                heads.add(channel);
+            }
+        }
+    }
+
+    private boolean isSafe(int channel, int startMs) {
+        for (int other = 0; other < watermark.length; other++) {
+            if (other != channel && watermark[other] < startMs) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // head 단어를 현재 segment 에 추가
+    private void append(WordStore store) {
+        int channel = store.getChannel(0);
+        int speaker = store.getSpeaker(0);
+        boolean speakerChanged = splitBySpeaker && speaker != segmentSpeaker;
+        boolean channelChanged = splitByChannel && channel != segmentChannel;
+
+        if (speakerChanged || channelChanged) {
+            flushSegment();
+        }
+
+        store.appendText(0, segment);
+        segmentChannel = channel;
+        segmentSpeaker = speaker;
+
+        if (boundary.endsSentence(store.getText(0))) {
+            flushSegment();
+        }
+    }
+
+    private void flushSegment() {
+        if (segment.length() > 0) {
+            String text = segment.toString().trim();
+            segment.setLength(0);
+            if (!text.isEmpty()) {
+                listener.onSegment(segmentChannel, segmentSpeaker, text);
+            }
+        }
+    }
+
+    private void allocate(int channels) {
+        int previous = pending == null ? 0 : pending.length;
+        pending = pending == null ? new WordStore[channels] : Arrays.copyOf(pending, channels);
+        watermark = watermark == null ? new int[channels] : Arrays.copyOf(watermark, channels);
+        for (int channel = previous; channel < channels; channel++) {
+            pending[channel] = new WordStore();
+            watermark[channel] = -1;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package net.samsung.examples.connector;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Streaming decoder of WebSocket transcription responses ({@code fw}/{@code nfw}/{@code fpt}/{@code tpt}).
+ * Frames are accumulated in a reusable buffer until the last fragment, then the words are passed to a
+ * {@link WordSink} straight from the parser without building response objects.
+ * Not thread-safe; one instance per connection.
+ */
+public class WebSocketResponseDecoder {
+
+    public interface WordSink {
+        /**
+         * @param text reusable buffer, valid only during the call
+         */
+        void onWord(boolean isFinal, char[] text, int offset, int length, int startMs, int durationMs, int speaker);
+    }
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private char[] message = new char[4096];
+    private int messageLength = 0;
+    private char[] word = new char[64];
+
+    private int finalProcTimeMs = 0;
+    private int totalProcTimeMs = 0;
+
+    /**
+     * Adds a received fragment and decodes the message when it is the last one.
+     *
+     * @return true when a whole message was decoded
+     */
+    public boolean append(CharSequence data, boolean last, WordSink sink) throws IOException {
+        int length = data.length();
+        ensureMessageCapacity(messageLength + length);
+        if (data instanceof String) {
+            ((String) data).getChars(0, length, message, messageLength);
+        } else if (data instanceof CharBuffer) {
+            ((CharBuffer) data).duplicate().get(message, messageLength, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                message[messageLength + i] = data.charAt(i);
+            }
+        }
+        messageLength += length;
+
+        if (!last) {
+            return false;
+        }
+        try {
+            decode(sink);
+        } finally {
+            messageLength = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Drops a partially received message, e.g. after the connection was lost.
+     */
+    public void reset() {
+        messageLength = 0;
+    }
+
+    public int getFinalProcTimeMs() {
+        return finalProcTimeMs;
+    }
+
+    public int getTotalProcTimeMs() {
+        return totalProcTimeMs;
+    }
+
+    private void decode(WordSink sink) throws IOException {
+        finalProcTimeMs = 0;
+        totalProcTimeMs = 0;
+
+        try (JsonParser parser = jsonFactory.createParser(message, 0, messageLength)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "fw":
+                        readWords(parser, true, sink);
+                        break;
+                    case "nfw":
+                        readWords(parser, false, sink);
+                        break;
+                    case "fpt":
+                        finalProcTimeMs = parser.getValueAsInt();
+                        break;
+                    case "tpt":
+                        totalProcTimeMs = parser.getValueAsInt();
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        }
+    }
+
+    private void readWords(JsonParser parser, boolean isFinal, WordSink sink) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int wordLength = 0;
+            int startMs = 0;
+            int durationMs = 0;
+            int speaker = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "t":
+                        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                            wordLength = 0;
+                            parser.skipChildren();
+                            break;
+                        }
+                        // parser 의 문자 배열은 다음 token 에서 바뀌므로 복사해 둔다
+                        wordLength = parser.getTextLength();
+                        if (wordLength > word.length) {
+                            word = new char[Math.max(wordLength, word.length * 2)];
+                        }
+                        System.arraycopy(parser.getTextCharacters(), parser.getTextOffset(), word, 0, wordLength);
+                        break;
+                    case "s":
+                        startMs = parser.getValueAsInt();
+                        break;
+                    case "d":
+                        durationMs = parser.getValueAsInt();
+                        break;
+                    case "spk":
+                        speaker = parser.getValueAsInt();
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            sink.onWord(isFinal, word, 0, wordLength, startMs, durationMs, speaker);
+        }
+    }
+
+    private void ensureMessageCapacity(int capacity) {
+        if (capacity > message.length) {
+            message = Arrays.copyOf(message, Math.max(capacity, message.length * 2));
+        }
+    }
+}
@@ -10,4 +10,5 @@ public class EachWord {
     private int speaker;
     private String text;
     private int startMs;
+    private int durationMs;
 }
@@ -0,0 +1,256 @@
+package net.samsung.examples.connector.dto;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Columnar store of recognized words: parallel int arrays for channel, speaker, startMs and duration,
+ * and one shared char arena for the text. Words are appended at the tail and removed from the head.
+ * Not thread-safe.
+ */
+public class WordStore implements Iterable<EachWord> {
+
+    public interface WordVisitor {
+        /**
+         * @param text view into the arena, valid only during the call
+         */
+        void visit(int channel, int speaker, int startMs, int durationMs, CharSequence text);
+    }
+
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private int[] channels;
+    private int[] speakers;
+    private int[] startMs;
+    private int[] durationMs;
+    private int[] textOffsets;
+    private int[] textLengths;
+    private char[] arena;
+
+    private int head = 0;
+    private int tail = 0;
+    private int arenaTail = 0;
+
+    private final TextView view = new TextView();
+
+    public WordStore() {
+        this(64, 512);
+    }
+
+    public WordStore(int initialWords, int initialChars) {
+        int words = Math.max(4, initialWords);
+        channels = new int[words];
+        speakers = new int[words];
+        startMs = new int[words];
+        durationMs = new int[words];
+        textOffsets = new int[words];
+        textLengths = new int[words];
+        arena = new char[Math.max(16, initialChars)];
+    }
+
+    public int add(int channel, int speaker, int start, int duration, CharSequence text) {
+        if (tail == channels.length) {
+            compactOrGrow();
+        }
+        int length = text.length();
+        ensureArena(length);
+
+        if (text instanceof String) {
+            ((String) text).getChars(0, length, arena, arenaTail);
+        } else {
+            for (int i = 0; i < length; i++) {
+                arena[arenaTail + i] = text.charAt(i);
+            }
+        }
+
+        channels[tail] = channel;
+        speakers[tail] = speaker;
+        startMs[tail] = start;
+        durationMs[tail] = duration;
+        textOffsets[tail] = arenaTail;
+        textLengths[tail] = length;
+        arenaTail += length;
+        return tail++ - head;
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public boolean isEmpty() {
+        return tail == head;
+    }
+
+    public int getChannel(int index) {
+        return channels[checkIndex(index)];
+    }
+
+    public int getSpeaker(int index) {
+        return speakers[checkIndex(index)];
+    }
+
+    public int getStartMs(int index) {
+        return startMs[checkIndex(index)];
+    }
+
+    public int getDurationMs(int index) {
+        return durationMs[checkIndex(index)];
+    }
+
+    /**
+     * Text of the word as a reusable view, valid until the next call on this store.
+     */
+    public CharSequence getText(int index) {
+        int i = checkIndex(index);
+        view.set(textOffsets[i], textLengths[i]);
+        return view;
+    }
+
+    public void appendText(int index, StringBuilder sb) {
+        int i = checkIndex(index);
+        sb.append(arena, textOffsets[i], textLengths[i]);
+    }
+
+    public EachWord get(int index) {
+        int i = checkIndex(index);
+        return EachWord.builder()
+                .channel(channels[i])
+                .speaker(speakers[i])
+                .text(new String(arena, textOffsets[i], textLengths[i]))
+                .startMs(startMs[i])
+                .durationMs(durationMs[i])
+                .build();
+    }
+
+    public void removeFirst() {
+        if (head == tail) {
+            throw new NoSuchElementException();
+        }
+        head++;
+        if (head == tail) {
+            clear();
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        tail = 0;
+        arenaTail = 0;
+    }
+
+    public void forEach(WordVisitor visitor) {
+        for (int i = head; i < tail; i++) {
+            view.set(textOffsets[i], textLengths[i]);
+            visitor.visit(channels[i], speakers[i], startMs[i], durationMs[i], view);
+        }
+    }
+
+    @Override
+    public Iterator<EachWord> iterator() {
+        return new Iterator<EachWord>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public EachWord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= tail - head) {
+            throw new IndexOutOfBoundsException("index=" + index + " size=" + (tail - head));
+        }
+        return head + index;
+    }
+
+    private void compactOrGrow() {
+        if (head >= COMPACT_THRESHOLD && head * 2 >= tail) {
+            compact();
+        } else {
+            int capacity = channels.length * 2;
+            channels = Arrays.copyOf(channels, capacity);
+            speakers = Arrays.copyOf(speakers, capacity);
+            startMs = Arrays.copyOf(startMs, capacity);
+            durationMs = Arrays.copyOf(durationMs, capacity);
+            textOffsets = Arrays.copyOf(textOffsets, capacity);
+            textLengths = Arrays.copyOf(textLengths, capacity);
+        }
+    }
+
+    private void ensureArena(int length) {
+        if (arenaTail + length <= arena.length) {
+            return;
+        }
+        if (head > 0 && textOffsets[head] * 2 >= arenaTail) {
+            compact();
+            if (arenaTail + length <= arena.length) {
+                return;
+            }
+        }
+        arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaTail + length));
+    }
+
+    // 앞쪽에서 제거된 단어 공간을 회수
+    private void compact() {
+        int count = tail - head;
+        int textStart = count > 0 ? textOffsets[head] : arenaTail;
+
+        System.arraycopy(channels, head, channels, 0, count);
+        System.arraycopy(speakers, head, speakers, 0, count);
+        System.arraycopy(startMs, head, startMs, 0, count);
+        System.arraycopy(durationMs, head, durationMs, 0, count);
+        System.arraycopy(textOffsets, head, textOffsets, 0, count);
+        System.arraycopy(textLengths, head, textLengths, 0, count);
+        System.arraycopy(arena, textStart, arena, 0, arenaTail - textStart);
+
+        for (int i = 0; i < count; i++) {
+            textOffsets[i] -= textStart;
+        }
+        arenaTail -= textStart;
+        tail = count;
+        head = 0;
+    }
+
+    private final class TextView implements CharSequence {
+        private int offset;
+        private int length;
+
+        void set(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index=" + index + " length=" + length);
+            }
+            return arena[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(arena, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(arena, offset, length);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package net.samsung.examples.metrics;
+
+/**
+ * JMX view of a gauge.
+ */
+public interface GaugeMXBean {
+
+    long getValue();
+}
@@ -0,0 +1,112 @@
+package net.samsung.examples.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram of millisecond values. Recording is lock-free and does not allocate.
+ * Percentiles are estimated as the upper bound of the bucket they fall in.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+
+    /** bucket upper bounds in ms, the last bucket is +Inf */
+    static final long[] BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000, 60_000};
+
+    private final String name;
+    private final String connector;
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram(String name, String connector) {
+        this.name = name;
+        this.connector = connector;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long valueMs) {
+        long value = Math.max(0, valueMs);
+        int index = 0;
+        while (index < BOUNDS.length && value > BOUNDS[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        sum.add(value);
+
+        long previous;
+        while (value > (previous = max.get()) && !max.compareAndSet(previous, value)) {
+            // retry
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getConnector() {
+        return connector;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getSum() {
+        return sum.sum();
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public double getMean() {
+        long n = count.sum();
+        return n > 0 ? (double) sum.sum() / n : 0;
+    }
+
+    @Override
+    public long getP50() {
+        return percentile(0.50);
+    }
+
+    @Override
+    public long getP99() {
+        return percentile(0.99);
+    }
+
+    long[] snapshotBuckets() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    private long percentile(double quantile) {
+        long[] counts = snapshotBuckets();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < BOUNDS.length ? Math.min(BOUNDS[i], getMax()) : getMax();
+            }
+        }
+        return getMax();
+    }
+}
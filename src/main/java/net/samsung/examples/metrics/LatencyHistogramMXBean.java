@@ -0,0 +1,19 @@
+package net.samsung.examples.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}. Values are in milliseconds.
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    long getSum();
+
+    long getMax();
+
+    double getMean();
+
+    long getP50();
+
+    long getP99();
+}
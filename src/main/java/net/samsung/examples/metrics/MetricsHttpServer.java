@@ -0,0 +1,53 @@
+package net.samsung.examples.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves {@link MetricsRegistry#toPrometheus()} at {@code /metrics} for scraping.
+ */
+public class MetricsHttpServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    private final HttpServer server;
+
+    public MetricsHttpServer(String host, int port, MetricsRegistry registry) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.server.createContext("/metrics", exchange -> respond(exchange, registry));
+        this.server.start();
+        logger.info("metrics endpoint http://{}:{}/metrics", host, getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, MetricsRegistry registry) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = registry.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package net.samsung.examples.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide latency histograms and gauges of the connectors, labelled by connector.
+ * Published as MXBeans under {@code net.samsung.examples:type=Metrics} once JMX is enabled,
+ * and as Prometheus text by {@link MetricsHttpServer}.
+ */
+public class MetricsRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    public static final String CONNECT_MS = "soniox_connect_ms";
+    public static final String FIRST_WORD_MS = "soniox_time_to_first_word_ms";
+    public static final String FINALIZE_MS = "soniox_nonfinal_to_final_ms";
+    public static final String PROC_LAG_MS = "soniox_proc_lag_ms";
+    public static final String FINAL_LAG_MS = "soniox_final_lag_ms";
+    public static final String SEND_STALL_MS = "soniox_send_stall_ms";
+    public static final String QUEUED_BYTES = "soniox_send_queued_bytes";
+
+    private static final Map<String, String> HELP = Map.of(
+            CONNECT_MS, "Time from opening a stream until the transport is ready",
+            FIRST_WORD_MS, "Time from the first audio sent until the first word is received",
+            FINALIZE_MS, "Time from a word first appearing as non-final until it is final",
+            PROC_LAG_MS, "Audio sent minus total_proc_time_ms when a result arrives",
+            FINAL_LAG_MS, "Audio sent minus final_proc_time_ms when a result arrives",
+            SEND_STALL_MS, "Time send() blocked on a full send queue",
+            QUEUED_BYTES, "Audio bytes queued for sending over all streams");
+
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final LongAdder queuedBytes = new LongAdder();
+    private volatile boolean jmxEnabled = false;
+
+    MetricsRegistry() {
+        gauge(QUEUED_BYTES, queuedBytes::sum);
+    }
+
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    public LatencyHistogram histogram(String name, String connector) {
+        return histograms.computeIfAbsent(name + "|" + connector, key -> {
+            LatencyHistogram histogram = new LatencyHistogram(name, connector);
+            if (jmxEnabled) {
+                register(histogram);
+            }
+            return histogram;
+        });
+    }
+
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+        if (jmxEnabled) {
+            register(name, value);
+        }
+    }
+
+    /**
+     * Bytes waiting in send queues, updated by the senders.
+     */
+    public LongAdder getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    public synchronized void enableJmx() {
+        if (jmxEnabled) {
+            return;
+        }
+        jmxEnabled = true;
+        histograms.values().forEach(this::register);
+        gauges.forEach(this::register);
+    }
+
+    /**
+     * Prometheus text exposition format 0.0.4.
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder(4096);
+
+        List<LatencyHistogram> sorted = new ArrayList<>(histograms.values());
+        sorted.sort((a, b) -> a.getName().equals(b.getName()) ? a.getConnector().compareTo(b.getConnector()) : a.getName().compareTo(b.getName()));
+        String current = null;
+        for (LatencyHistogram histogram : sorted) {
+            String name = histogram.getName();
+            if (!name.equals(current)) {
+                current = name;
+                sb.append("# HELP ").append(name).append(' ').append(HELP.getOrDefault(name, name)).append('\n');
+                sb.append("# TYPE ").append(name).append(" histogram\n");
+            }
+            String label = "connector=\"" + histogram.getConnector() + "\"";
+            long[] counts = histogram.snapshotBuckets();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String le = i < LatencyHistogram.BOUNDS.length ? Long.toString(LatencyHistogram.BOUNDS[i]) : "+Inf";
+                sb.append(name).append("_bucket{").append(label).append(",le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+            }
+            sb.append(name).append("_sum{").append(label).append("} ").append(histogram.getSum()).append('\n');
+            sb.append(name).append("_count{").append(label).append("} ").append(cumulative).append('\n');
+        }
+
+        gauges.forEach((name, value) -> {
+            sb.append("# HELP ").append(name).append(' ').append(HELP.getOrDefault(name, name)).append('\n');
+            sb.append("# TYPE ").append(name).append(" gauge\n");
+            sb.append(name).append(' ').append(value.getAsLong()).append('\n');
+        });
+        return sb.toString();
+    }
+
+    private void register(LatencyHistogram histogram) {
+        register(ObjectName.quote(histogram.getName()) + ",connector=" + ObjectName.quote(histogram.getConnector()),
+                new StandardMBean(histogram, LatencyHistogramMXBean.class, true));
+    }
+
+    private void register(String name, LongSupplier value) {
+        GaugeMXBean gauge = value::getAsLong;
+        register(ObjectName.quote(name), new StandardMBean(gauge, GaugeMXBean.class, true));
+    }
+
+    private void register(String name, StandardMBean bean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("net.samsung.examples:type=Metrics,name=" + name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(bean, objectName);
+            }
+        } catch (Exception e) {
+            logger.warn("metrics JMX registration failed name={} : {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package net.samsung.examples.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing of one recognition stream: connect time, time to first word, non-final to final latency per word
+ * and how far the server's processing lags behind the audio sent.
+ * Audio is reported from the sending thread; words and results from the single callback thread of the stream.
+ */
+public class StreamLatencyTracker {
+
+    private final LatencyHistogram connectMs;
+    private final LatencyHistogram firstWordMs;
+    private final LatencyHistogram finalizeMs;
+    private final LatencyHistogram procLagMs;
+    private final LatencyHistogram finalLagMs;
+    private final LatencyHistogram sendStallMs;
+    private final int bytesPerSecond;
+
+    private volatile long connectStartNanos = 0;
+    private volatile boolean connected = false;
+    private final AtomicLong firstAudioNanos = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private boolean firstWordSeen = false;
+
+    // 처음 non-final 로 나타난 단어의 startMs 와 시각, startMs 오름차순 ring
+    private long[] pendingStartMs = new long[64];
+    private long[] pendingNanos = new long[64];
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * @param bytesPerSecond byte rate of the audio, 0 when unknown (no lag histograms)
+     */
+    public StreamLatencyTracker(MetricsRegistry registry, String connector, int bytesPerSecond) {
+        this.connectMs = registry.histogram(MetricsRegistry.CONNECT_MS, connector);
+        this.firstWordMs = registry.histogram(MetricsRegistry.FIRST_WORD_MS, connector);
+        this.finalizeMs = registry.histogram(MetricsRegistry.FINALIZE_MS, connector);
+        this.procLagMs = registry.histogram(MetricsRegistry.PROC_LAG_MS, connector);
+        this.finalLagMs = registry.histogram(MetricsRegistry.FINAL_LAG_MS, connector);
+        this.sendStallMs = registry.histogram(MetricsRegistry.SEND_STALL_MS, connector);
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Starts timing a (re)connect.
+     */
+    public void connectStarted() {
+        connected = false;
+        connectStartNanos = System.nanoTime();
+    }
+
+    public void connected() {
+        if (!connected && connectStartNanos != 0) {
+            connected = true;
+            connectMs.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStartNanos));
+        }
+    }
+
+    public void audioSent(int bytes) {
+        if (firstAudioNanos.get() == 0) {
+            firstAudioNanos.compareAndSet(0, System.nanoTime());
+        }
+        sentBytes.addAndGet(bytes);
+    }
+
+    public void sendStalled(long stallMs) {
+        sendStallMs.record(stallMs);
+    }
+
+    public void word(boolean isFinal, long startMs) {
+        long now = System.nanoTime();
+        if (!firstWordSeen) {
+            firstWordSeen = true;
+            long firstAudio = firstAudioNanos.get();
+            if (firstAudio != 0) {
+                firstWordMs.record(TimeUnit.NANOSECONDS.toMillis(now - firstAudio));
+            }
+        }
+
+        if (!isFinal) {
+            // 같은 단어는 응답마다 반복되므로 처음 본 시각만 남긴다
+            if (size == 0 || startMs > pendingStartMs[(head + size - 1) & (pendingStartMs.length - 1)]) {
+                push(startMs, now);
+            }
+            return;
+        }
+
+        long seenNanos = 0;
+        while (size > 0 && pendingStartMs[head] <= startMs) {
+            if (pendingStartMs[head] == startMs) {
+                seenNanos = pendingNanos[head];
+            }
+            head = (head + 1) & (pendingStartMs.length - 1);
+            size--;
+        }
+        if (seenNanos != 0) {
+            finalizeMs.record(TimeUnit.NANOSECONDS.toMillis(now - seenNanos));
+        }
+    }
+
+    public void result(long finalProcTimeMs, long totalProcTimeMs) {
+        if (bytesPerSecond <= 0) {
+            return;
+        }
+        long sentMs = sentBytes.get() * 1000 / bytesPerSecond;
+        procLagMs.record(sentMs - totalProcTimeMs);
+        finalLagMs.record(sentMs - finalProcTimeMs);
+    }
+
+    private void push(long startMs, long nanos) {
+        if (size == pendingStartMs.length) {
+            int capacity = pendingStartMs.length * 2;
+            long[] starts = new long[capacity];
+            long[] times = new long[capacity];
+            for (int i = 0; i < size; i++) {
+                starts[i] = pendingStartMs[(head + i) & (pendingStartMs.length - 1)];
+                times[i] = pendingNanos[(head + i) & (pendingStartMs.length - 1)];
+            }
+            pendingStartMs = starts;
+            pendingNanos = times;
+            head = 0;
+        }
+        int index = (head + size) & (pendingStartMs.length - 1);
+        pendingStartMs[index] = startMs;
+        pendingNanos[index] = nanos;
+        size++;
+    }
+}
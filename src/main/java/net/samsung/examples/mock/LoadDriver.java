@@ -0,0 +1,206 @@
+package net.samsung.examples.mock;
+
+import net.samsung.examples.connector.ConnectorThreads;
+import net.samsung.examples.connector.SessionState;
+import net.samsung.examples.connector.SonioxASRSession;
+import net.samsung.examples.connector.SonioxASRSessionListener;
+import net.samsung.examples.connector.SonioxASRSessionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens concurrent TranscribeStream sessions through a {@link SonioxASRSessionManager} and measures
+ * time-to-first-word (first audio sent to first word received) and end-to-end latency (half-close to last result).
+ */
+public class LoadDriver {
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+
+    private final SonioxASRSessionManager manager;
+    private final byte[] audio;
+    private final int chunkBytes;
+    private final long chunkMs;
+    private final boolean realtime;
+
+    /**
+     * @param chunkMs  audio length of one chunk of {@code chunkBytes}
+     * @param realtime send chunks at the audio rate instead of as fast as possible
+     */
+    public LoadDriver(SonioxASRSessionManager manager, byte[] audio, int chunkBytes, long chunkMs, boolean realtime) {
+        this.manager = manager;
+        this.audio = audio;
+        this.chunkBytes = Math.max(1, chunkBytes);
+        this.chunkMs = chunkMs;
+        this.realtime = realtime;
+    }
+
+    /**
+     * @param concurrency sessions open at the same time
+     * @param rounds      sessions run one after another by each concurrent worker
+     * @param rampUpMs    time over which the workers are started
+     */
+    public LoadReport run(int concurrency, int rounds, long rampUpMs) throws InterruptedException {
+        LoadReport report = new LoadReport();
+        // 동시 session 마다 thread 하나 (virtual mode 에서는 virtual thread)
+        ExecutorService workers = ConnectorThreads.shared().newSessionExecutor("load-driver");
+
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                long delayMs = concurrency > 1 ? rampUpMs * i / (concurrency - 1) : 0;
+                workers.execute(() -> {
+                    try {
+                        Thread.sleep(delayMs);
+                        for (int round = 0; round < rounds; round++) {
+                            runSession(report);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+        }
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        report.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        return report;
+    }
+
+    private void runSession(LoadReport report) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicLong firstWordAt = new AtomicLong();
+        AtomicInteger words = new AtomicInteger();
+
+        SonioxASRSession session;
+        try {
+            session = manager.openSession(new SonioxASRSessionListener() {
+                @Override
+                public void onResult(SonioxASRSession session, SpeechServiceOuterClass.Result result) {
+                    if (result.getWordsCount() == 0) {
+                        return;
+                    }
+                    firstWordAt.compareAndSet(0, System.nanoTime());
+                    for (SpeechServiceOuterClass.Word word : result.getWordsList()) {
+                        if (word.getIsFinal()) {
+                            words.incrementAndGet();
+                        }
+                    }
+                }
+
+                @Override
+                public void onStateChanged(SonioxASRSession session, SessionState state) {
+                    if (state.isTerminal()) {
+                        done.countDown();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("open session failed : {}", e.getMessage());
+            report.addFailure();
+            return;
+        }
+
+        long sendStartedAt = System.nanoTime();
+        long completedAt;
+        try {
+            long nextChunkAt = sendStartedAt;
+            for (int offset = 0; offset < audio.length && !session.isTerminated(); offset += chunkBytes) {
+                if (realtime) {
+                    long waitNanos = nextChunkAt - System.nanoTime();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                    nextChunkAt += TimeUnit.MILLISECONDS.toNanos(chunkMs);
+                }
+                session.send(audio, offset, Math.min(chunkBytes, audio.length - offset));
+            }
+            completedAt = System.nanoTime();
+            session.complete();
+        } catch (IllegalStateException e) {
+            // 전송 중 session 이 실패로 종료됨
+            completedAt = System.nanoTime();
+        }
+
+        if (!done.await(60, TimeUnit.SECONDS)) {
+            session.cancel("load driver timeout");
+            done.await(5, TimeUnit.SECONDS);
+        }
+        long endedAt = System.nanoTime();
+
+        if (session.getState() != SessionState.CLOSED) {
+            report.addFailure();
+            return;
+        }
+        long firstWord = firstWordAt.get();
+        report.addSession(
+                firstWord == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(firstWord - sendStartedAt),
+                TimeUnit.NANOSECONDS.toMillis(endedAt - completedAt),
+                words.get());
+    }
+
+    public static class LoadReport {
+        private final List<Long> timeToFirstWordMs = new ArrayList<>();
+        private final List<Long> endToEndMs = new ArrayList<>();
+        private long sessions = 0;
+        private long failures = 0;
+        private long finalWords = 0;
+        private long elapsedMs = 0;
+
+        synchronized void addSession(long ttfwMs, long e2eMs, int words) {
+            sessions++;
+            finalWords += words;
+            if (ttfwMs >= 0) {
+                timeToFirstWordMs.add(ttfwMs);
+            }
+            endToEndMs.add(e2eMs);
+        }
+
+        synchronized void addFailure() {
+            sessions++;
+            failures++;
+        }
+
+        public synchronized long getSessions() {
+            return sessions;
+        }
+
+        public synchronized long getFailures() {
+            return failures;
+        }
+
+        public synchronized long getTimeToFirstWordMs(double percentile) {
+            return percentile(timeToFirstWordMs, percentile);
+        }
+
+        public synchronized long getEndToEndMs(double percentile) {
+            return percentile(endToEndMs, percentile);
+        }
+
+        private static long percentile(List<Long> values, double percentile) {
+            if (values.isEmpty()) {
+                return -1;
+            }
+            List<Long> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+            return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("sessions=%d failures=%d finalWords=%d elapsedMs=%d ttfw(p50=%d p99=%d max=%d) e2e(p50=%d p99=%d max=%d)",
+                    sessions, failures, finalWords, elapsedMs,
+                    percentile(timeToFirstWordMs, 50), percentile(timeToFirstWordMs, 99), percentile(timeToFirstWordMs, 100),
+                    percentile(endToEndMs, 50), percentile(endToEndMs, 99), percentile(endToEndMs, 100));
+        }
+    }
+}
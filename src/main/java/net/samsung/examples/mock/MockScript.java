@@ -0,0 +1,100 @@
+package net.samsung.examples.mock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Word sequence replayed by the mock server. Each line of a script is one utterance;
+ * a line may start with {@code <speaker>:} to set the speaker of that utterance.
+ * The script is repeated when the audio is longer than the script.
+ */
+public class MockScript {
+
+    private static final String DEFAULT_SCRIPT =
+            "1:안녕하세요. 오늘 회의를 시작하겠습니다.\n" +
+            "2:네 좋습니다. 지난주 진행 상황부터 공유드릴게요.\n" +
+            "1:Hello everyone, this is a scripted transcript.\n" +
+            "2:It is replayed word by word at a fixed pace!\n";
+
+    private final String[] texts;
+    private final int[] speakers;
+
+    private MockScript(List<String> texts, List<Integer> speakers) {
+        if (texts.isEmpty()) {
+            throw new IllegalArgumentException("script is empty");
+        }
+        this.texts = texts.toArray(new String[0]);
+        this.speakers = new int[speakers.size()];
+        for (int i = 0; i < this.speakers.length; i++) {
+            this.speakers[i] = speakers.get(i);
+        }
+    }
+
+    public static MockScript defaultScript() {
+        return parse(DEFAULT_SCRIPT);
+    }
+
+    public static MockScript load(String fileName) throws IOException {
+        return parse(new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8));
+    }
+
+    public static MockScript parse(String script) {
+        List<String> texts = new ArrayList<>();
+        List<Integer> speakers = new ArrayList<>();
+
+        for (String line : script.split("\\R")) {
+            line = line.trim();
+            int speaker = 0;
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).chars().allMatch(Character::isDigit)) {
+                speaker = Integer.parseInt(line.substring(0, colon));
+                line = line.substring(colon + 1).trim();
+            }
+
+            // Soniox 와 같이 공백과 문장부호를 별도 단어로 보낸다
+            for (String token : line.split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int end = token.length();
+                while (end > 1 && isPunctuation(token.charAt(end - 1))) {
+                    end--;
+                }
+                if (!texts.isEmpty()) {
+                    texts.add(" ");
+                    speakers.add(speaker);
+                }
+                texts.add(token.substring(0, end));
+                speakers.add(speaker);
+                for (int i = end; i < token.length(); i++) {
+                    texts.add(String.valueOf(token.charAt(i)));
+                    speakers.add(speaker);
+                }
+            }
+        }
+        return new MockScript(texts, speakers);
+    }
+
+    static boolean isPunctuation(char c) {
+        return c == '.' || c == ',' || c == '!' || c == '?' || c == '。';
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * @param index position in the replayed stream, wraps around the script
+     */
+    public String getText(long index) {
+        return texts[(int) (index % texts.length)];
+    }
+
+    public int getSpeaker(long index) {
+        return speakers[(int) (index % speakers.length)];
+    }
+}
@@ -0,0 +1,42 @@
+package net.samsung.examples.mock;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Behaviour of the mock server. All durations are in milliseconds.
+ */
+@Getter
+@Builder
+@ToString
+public class MockServerOptions {
+
+    /** delay between receiving audio and sending the words it finalized */
+    @Builder.Default
+    private final long latencyMs = 100;
+
+    /** uniform random delay added on top of {@link #latencyMs} */
+    @Builder.Default
+    private final long jitterMs = 0;
+
+    /** audio length of each scripted word */
+    @Builder.Default
+    private final int wordMs = 300;
+
+    /** probability that a session fails with UNAVAILABLE */
+    @Builder.Default
+    private final double errorRate = 0.0;
+
+    /** audio received before an injected failure happens */
+    @Builder.Default
+    private final long errorAfterMs = 0;
+
+    /** inbound audio limit per session, 0 : unlimited */
+    @Builder.Default
+    private final long maxBytesPerSecond = 0;
+
+    /** threads that send the delayed responses */
+    @Builder.Default
+    private final int responseThreads = 4;
+}
@@ -0,0 +1,128 @@
+package net.samsung.examples.mock;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport independent state of one mock recognition stream: scripted words, delayed in-order responses,
+ * injected failures and inbound throughput limit.
+ */
+class MockSession {
+
+    interface Output {
+        void onUpdate(MockTranscriber.Update update);
+
+        void onFailure(String reason);
+
+        void onEnd();
+    }
+
+    private final MockServerOptions options;
+    private final ScheduledExecutorService scheduler;
+    private final MockTranscriber transcriber;
+    private final Output output;
+    private final long failAtMs;
+
+    private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+    private final Object outputLock = new Object();
+    private long lastDueNanos = 0;
+    private long throttledUntilNanos = 0;
+    private boolean closed = false;
+
+    MockSession(MockScript script, MockServerOptions options, ScheduledExecutorService scheduler, int bytesPerSecond, boolean includeNonFinal, Output output) {
+        this.options = options;
+        this.scheduler = scheduler;
+        this.transcriber = new MockTranscriber(script, options.getWordMs(), bytesPerSecond, includeNonFinal);
+        this.output = output;
+        this.failAtMs = ThreadLocalRandom.current().nextDouble() < options.getErrorRate() ? options.getErrorAfterMs() : -1;
+    }
+
+    /**
+     * @return nanoseconds the caller should wait before reading the next audio message
+     */
+    long onAudio(int bytes) {
+        if (isClosed()) {
+            return 0;
+        }
+
+        MockTranscriber.Update update = transcriber.onAudio(bytes);
+        if (failAtMs >= 0 && transcriber.getAudioMs() >= failAtMs) {
+            schedule(() -> output.onFailure("injected failure after " + transcriber.getAudioMs() + "ms of audio"), true);
+            return 0;
+        }
+        if (!update.isEmpty()) {
+            schedule(() -> output.onUpdate(update), false);
+        }
+        return throttle(bytes);
+    }
+
+    void onEnd() {
+        if (isClosed()) {
+            return;
+        }
+
+        MockTranscriber.Update update = transcriber.finish();
+        schedule(() -> {
+            if (!update.isEmpty()) {
+                output.onUpdate(update);
+            }
+            output.onEnd();
+        }, true);
+    }
+
+    void cancel() {
+        synchronized (pending) {
+            closed = true;
+            pending.clear();
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (pending) {
+            return closed;
+        }
+    }
+
+    // 응답은 latency + jitter 후 수신 순서대로 전송
+    private void schedule(Runnable task, boolean last) {
+        long delayNanos;
+        synchronized (pending) {
+            if (closed) {
+                return;
+            }
+            closed = last;
+
+            long now = System.nanoTime();
+            long jitter = options.getJitterMs() > 0 ? ThreadLocalRandom.current().nextLong(options.getJitterMs() + 1) : 0;
+            long due = Math.max(now + TimeUnit.MILLISECONDS.toNanos(options.getLatencyMs() + jitter), lastDueNanos);
+            lastDueNanos = due;
+            pending.addLast(task);
+            delayNanos = due - now;
+        }
+        scheduler.schedule(this::runNext, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void runNext() {
+        synchronized (outputLock) {
+            Runnable task;
+            synchronized (pending) {
+                task = pending.pollFirst();
+            }
+            if (task != null) {
+                task.run();
+            }
+        }
+    }
+
+    private long throttle(int bytes) {
+        long limit = options.getMaxBytesPerSecond();
+        if (limit <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        throttledUntilNanos = Math.max(now, throttledUntilNanos) + bytes * TimeUnit.SECONDS.toNanos(1) / limit;
+        return throttledUntilNanos - now;
+    }
+}
@@ -0,0 +1,77 @@
+package net.samsung.examples.mock;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embeddable fake Soniox endpoint: a plaintext gRPC SpeechService on loopback. Port 0 picks a free port.
+ */
+public class MockSonioxServer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(MockSonioxServer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final MockSpeechService speechService;
+    private final Server grpcServer;
+
+    public MockSonioxServer(int grpcPort, MockScript script, MockServerOptions options) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, options.getResponseThreads()), r -> {
+            Thread thread = new Thread(r, "mock-soniox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.speechService = new MockSpeechService(script, options, scheduler);
+        this.grpcServer = NettyServerBuilder.forAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), grpcPort))
+                .addService(speechService)
+                .build();
+    }
+
+    public MockSonioxServer start() throws IOException {
+        grpcServer.start();
+        logger.info("mock soniox server started grpcPort={}", getGrpcPort());
+        return this;
+    }
+
+    public String getHost() {
+        return InetAddress.getLoopbackAddress().getHostAddress();
+    }
+
+    public int getGrpcPort() {
+        return grpcServer.getPort();
+    }
+
+    public long getSessionCount() {
+        return speechService.getSessionCount();
+    }
+
+    public long getFailureCount() {
+        return speechService.getFailureCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        grpcServer.shutdown();
+        try {
+            if (!grpcServer.awaitTermination(5, TimeUnit.SECONDS)) {
+                grpcServer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            grpcServer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        scheduler.shutdownNow();
+        logger.info("mock soniox server stopped sessions={} failures={}", getSessionCount(), getFailureCount());
+    }
+}
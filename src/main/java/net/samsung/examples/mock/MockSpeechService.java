@@ -0,0 +1,294 @@
+package net.samsung.examples.mock;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import soniox.speech_service.SpeechServiceGrpc;
+import soniox.speech_service.SpeechServiceOuterClass;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fake TranscribeStream and TranscribeMeeting that replay a {@link MockScript}. Other RPCs are unimplemented.
+ * In a meeting every segment of a stream replays the script from the start.
+ */
+public class MockSpeechService extends SpeechServiceGrpc.SpeechServiceImplBase {
+    private static final Logger logger = LoggerFactory.getLogger(MockSpeechService.class);
+
+    private final MockScript script;
+    private final MockServerOptions options;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong sessionCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public MockSpeechService(MockScript script, MockServerOptions options, ScheduledExecutorService scheduler) {
+        this.script = script;
+        this.options = options;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public StreamObserver<SpeechServiceOuterClass.TranscribeStreamRequest> transcribeStream(StreamObserver<SpeechServiceOuterClass.TranscribeStreamResponse> responseObserver) {
+        ServerCallStreamObserver<SpeechServiceOuterClass.TranscribeStreamResponse> serverObserver =
+                (ServerCallStreamObserver<SpeechServiceOuterClass.TranscribeStreamResponse>) responseObserver;
+
+        // 처리량 제한을 위해 요청은 하나씩 직접 받는다
+        serverObserver.disableAutoRequest();
+        serverObserver.request(1);
+        sessionCount.incrementAndGet();
+
+        return new StreamObserver<SpeechServiceOuterClass.TranscribeStreamRequest>() {
+            private MockSession session = null;
+
+            @Override
+            public void onNext(SpeechServiceOuterClass.TranscribeStreamRequest request) {
+                if (session == null) {
+                    if (!request.hasConfig()) {
+                        responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("first request must have config").asRuntimeException());
+                        return;
+                    }
+                    session = newSession(request.getConfig(), serverObserver);
+                    serverObserver.setOnCancelHandler(session::cancel);
+                    serverObserver.request(1);
+                    return;
+                }
+
+                long delayNanos = session.onAudio(request.getAudio().size());
+                if (delayNanos > 0) {
+                    scheduler.schedule(() -> serverObserver.request(1), delayNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    serverObserver.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                if (session != null) {
+                    session.cancel();
+                }
+            }
+
+            @Override
+            public void onCompleted() {
+                if (session != null) {
+                    session.onEnd();
+                } else {
+                    responseObserver.onCompleted();
+                }
+            }
+        };
+    }
+
+    @Override
+    public StreamObserver<SpeechServiceOuterClass.TranscribeMeetingRequest> transcribeMeeting(StreamObserver<SpeechServiceOuterClass.TranscribeMeetingResponse> responseObserver) {
+        ServerCallStreamObserver<SpeechServiceOuterClass.TranscribeMeetingResponse> serverObserver =
+                (ServerCallStreamObserver<SpeechServiceOuterClass.TranscribeMeetingResponse>) responseObserver;
+
+        serverObserver.disableAutoRequest();
+        serverObserver.request(1);
+        sessionCount.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        return new StreamObserver<SpeechServiceOuterClass.TranscribeMeetingRequest>() {
+            // 여러 stream 의 응답이 하나의 call 로 나가므로 serverObserver 로 동기화
+            private final Map<Integer, MockSession> segments = new HashMap<>();
+            private SpeechServiceOuterClass.TranscriptionConfig config = null;
+            private int endingSegments = 0;
+            private boolean halfClosed = false;
+
+            @Override
+            public void onNext(SpeechServiceOuterClass.TranscribeMeetingRequest request) {
+                long delayNanos = 0;
+                synchronized (serverObserver) {
+                    if (closed.get()) {
+                        return;
+                    }
+                    if (config == null) {
+                        if (!request.hasConfig()) {
+                            closed.set(true);
+                            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("first request must have config").asRuntimeException());
+                            return;
+                        }
+                        config = request.getConfig();
+                        serverObserver.setOnCancelHandler(this::cancel);
+                        serverObserver.request(1);
+                        return;
+                    }
+
+                    int streamId = request.getStreamId();
+                    MockSession segment = segments.get(streamId);
+                    if (segment == null && (request.getStartOfSegment() || !request.getAudio().isEmpty())) {
+                        segment = newMeetingSegment(streamId, request.getSeqNum(), config, serverObserver, closed, this::onSegmentEnd);
+                        segments.put(streamId, segment);
+                    }
+                    if (segment != null) {
+                        if (!request.getAudio().isEmpty()) {
+                            delayNanos = segment.onAudio(request.getAudio().size());
+                        }
+                        if (request.getEndOfSegment()) {
+                            segments.remove(streamId);
+                            endingSegments++;
+                            segment.onEnd();
+                        }
+                    }
+                }
+
+                if (delayNanos > 0) {
+                    scheduler.schedule(() -> serverObserver.request(1), delayNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    serverObserver.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                cancel();
+            }
+
+            @Override
+            public void onCompleted() {
+                synchronized (serverObserver) {
+                    halfClosed = true;
+                    for (MockSession segment : segments.values()) {
+                        endingSegments++;
+                        segment.onEnd();
+                    }
+                    segments.clear();
+                    completeIfDone();
+                }
+            }
+
+            // 마지막 segment 의 응답까지 보낸 후 call 종료
+            private void onSegmentEnd() {
+                synchronized (serverObserver) {
+                    endingSegments--;
+                    completeIfDone();
+                }
+            }
+
+            private void completeIfDone() {
+                if (halfClosed && endingSegments == 0 && segments.isEmpty() && !serverObserver.isCancelled() && closed.compareAndSet(false, true)) {
+                    responseObserver.onCompleted();
+                }
+            }
+
+            private void cancel() {
+                synchronized (serverObserver) {
+                    closed.set(true);
+                    for (MockSession segment : segments.values()) {
+                        segment.cancel();
+                    }
+                    segments.clear();
+                }
+            }
+        };
+    }
+
+    private MockSession newSession(SpeechServiceOuterClass.TranscriptionConfig config, ServerCallStreamObserver<SpeechServiceOuterClass.TranscribeStreamResponse> responseObserver) {
+        int bytesPerSecond = MockTranscriber.bytesPerSecond(config.getAudioFormat(), config.getSampleRateHertz(), config.getNumAudioChannels());
+
+        return new MockSession(script, options, scheduler, bytesPerSecond, config.getIncludeNonfinal(), new MockSession.Output() {
+            @Override
+            public void onUpdate(MockTranscriber.Update update) {
+                if (responseObserver.isCancelled()) {
+                    return;
+                }
+                SpeechServiceOuterClass.Result.Builder result = SpeechServiceOuterClass.Result.newBuilder()
+                        .setFinalProcTimeMs(update.finalProcTimeMs)
+                        .setTotalProcTimeMs(update.totalProcTimeMs);
+                addWords(result, update.finals);
+                addWords(result, update.nonFinals);
+                responseObserver.onNext(SpeechServiceOuterClass.TranscribeStreamResponse.newBuilder().setResult(result).build());
+            }
+
+            @Override
+            public void onFailure(String reason) {
+                if (responseObserver.isCancelled()) {
+                    return;
+                }
+                failureCount.incrementAndGet();
+                logger.debug("mock session failed : {}", reason);
+                responseObserver.onError(Status.UNAVAILABLE.withDescription(reason).asRuntimeException());
+            }
+
+            @Override
+            public void onEnd() {
+                if (!responseObserver.isCancelled()) {
+                    responseObserver.onCompleted();
+                }
+            }
+        });
+    }
+
+    private MockSession newMeetingSegment(int streamId, int seqNum, SpeechServiceOuterClass.TranscriptionConfig config,
+                                          ServerCallStreamObserver<SpeechServiceOuterClass.TranscribeMeetingResponse> responseObserver,
+                                          AtomicBoolean closed, Runnable onEnd) {
+        int bytesPerSecond = MockTranscriber.bytesPerSecond(config.getAudioFormat(), config.getSampleRateHertz(), config.getNumAudioChannels());
+
+        return new MockSession(script, options, scheduler, bytesPerSecond, config.getIncludeNonfinal(), new MockSession.Output() {
+            @Override
+            public void onUpdate(MockTranscriber.Update update) {
+                SpeechServiceOuterClass.Result.Builder result = SpeechServiceOuterClass.Result.newBuilder()
+                        .setFinalProcTimeMs(update.finalProcTimeMs)
+                        .setTotalProcTimeMs(update.totalProcTimeMs);
+                addWords(result, update.finals);
+                addWords(result, update.nonFinals);
+                send(SpeechServiceOuterClass.TranscribeMeetingResponse.newBuilder().setResult(result));
+            }
+
+            @Override
+            public void onFailure(String reason) {
+                synchronized (responseObserver) {
+                    if (responseObserver.isCancelled() || !closed.compareAndSet(false, true)) {
+                        return;
+                    }
+                    failureCount.incrementAndGet();
+                    logger.debug("mock meeting stream_id={} failed : {}", streamId, reason);
+                    responseObserver.onError(Status.UNAVAILABLE.withDescription(reason).asRuntimeException());
+                }
+            }
+
+            @Override
+            public void onEnd() {
+                send(SpeechServiceOuterClass.TranscribeMeetingResponse.newBuilder().setEndOfSegment(true));
+                onEnd.run();
+            }
+
+            private void send(SpeechServiceOuterClass.TranscribeMeetingResponse.Builder response) {
+                synchronized (responseObserver) {
+                    if (!responseObserver.isCancelled() && !closed.get()) {
+                        responseObserver.onNext(response.setStreamId(streamId).setSeqNum(seqNum).build());
+                    }
+                }
+            }
+        });
+    }
+
+    private static void addWords(SpeechServiceOuterClass.Result.Builder result, List<MockTranscriber.Word> words) {
+        for (MockTranscriber.Word word : words) {
+            result.addWords(SpeechServiceOuterClass.Word.newBuilder()
+                    .setText(word.text)
+                    .setStartMs(word.startMs)
+                    .setDurationMs(word.durationMs)
+                    .setIsFinal(word.isFinal)
+                    .setSpeaker(word.speaker));
+        }
+    }
+
+    public long getSessionCount() {
+        return sessionCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+}
@@ -0,0 +1,120 @@
+package net.samsung.examples.mock;
+
+import net.samsung.examples.connector.PcmFormat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Turns the amount of received audio into scripted words. A word becomes final once the audio
+ * covering it has arrived; the word being heard is reported as non-final.
+ * Words are reported on channel 0 only. Not thread-safe.
+ */
+class MockTranscriber {
+
+    static class Word {
+        final String text;
+        final int startMs;
+        final int durationMs;
+        final int speaker;
+        final boolean isFinal;
+
+        Word(String text, int startMs, int durationMs, int speaker, boolean isFinal) {
+            this.text = text;
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+            this.speaker = speaker;
+            this.isFinal = isFinal;
+        }
+    }
+
+    static class Update {
+        final List<Word> finals;
+        final List<Word> nonFinals;
+        final int finalProcTimeMs;
+        final int totalProcTimeMs;
+
+        Update(List<Word> finals, List<Word> nonFinals, int finalProcTimeMs, int totalProcTimeMs) {
+            this.finals = finals;
+            this.nonFinals = nonFinals;
+            this.finalProcTimeMs = finalProcTimeMs;
+            this.totalProcTimeMs = totalProcTimeMs;
+        }
+
+        boolean isEmpty() {
+            return finals.isEmpty() && nonFinals.isEmpty();
+        }
+    }
+
+    private final MockScript script;
+    private final int wordMs;
+    private final double bytesPerMs;
+    private final boolean includeNonFinal;
+
+    private long receivedBytes = 0;
+    private long nextIndex = 0;
+    private int nextStartMs = 0;
+
+    MockTranscriber(MockScript script, int wordMs, int bytesPerSecond, boolean includeNonFinal) {
+        this.script = script;
+        this.wordMs = Math.max(1, wordMs);
+        this.bytesPerMs = Math.max(1, bytesPerSecond) / 1000.0;
+        this.includeNonFinal = includeNonFinal;
+    }
+
+    /**
+     * Byte rate of the audio format. Compressed formats are assumed to be 16kHz mono 16bit.
+     */
+    static int bytesPerSecond(String format, int sampleRate, int channels) {
+        int bytesPerSecond = PcmFormat.bytesPerSecond(format, sampleRate > 0 ? sampleRate : 16000, channels);
+        return bytesPerSecond > 0 ? bytesPerSecond : 16000 * 2;
+    }
+
+    long getAudioMs() {
+        return (long) (receivedBytes / bytesPerMs);
+    }
+
+    Update onAudio(int bytes) {
+        receivedBytes += bytes;
+        return advance(false);
+    }
+
+    /**
+     * Finalizes every word that has started, including the one being heard.
+     */
+    Update finish() {
+        return advance(true);
+    }
+
+    private Update advance(boolean flush) {
+        long audioMs = getAudioMs();
+        List<Word> finals = new ArrayList<>();
+
+        while (true) {
+            int duration = durationOf(nextIndex);
+            boolean heard = nextStartMs + duration <= audioMs;
+            boolean started = nextStartMs < audioMs;
+            if (!heard && !(flush && started)) {
+                break;
+            }
+            finals.add(new Word(script.getText(nextIndex), nextStartMs, duration, script.getSpeaker(nextIndex), true));
+            nextStartMs += duration;
+            nextIndex++;
+        }
+
+        List<Word> nonFinals = Collections.emptyList();
+        if (includeNonFinal && !flush && nextStartMs < audioMs) {
+            nonFinals = Collections.singletonList(new Word(script.getText(nextIndex), nextStartMs, durationOf(nextIndex), script.getSpeaker(nextIndex), false));
+        }
+
+        return new Update(finals, nonFinals, nextStartMs, (int) audioMs);
+    }
+
+    // 공백과 문장부호는 길이가 없다
+    private int durationOf(long index) {
+        String text = script.getText(index);
+        boolean empty = text.trim().isEmpty() || (text.length() == 1 && MockScript.isPunctuation(text.charAt(0)));
+        return empty ? 0 : wordMs;
+    }
+}
@@ -0,0 +1,184 @@
+package net.samsung.examples.sink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queues events without locks and writes them in batches on a dedicated writer thread.
+ * When the queue is full partial events are dropped; final and delta events are always queued.
+ */
+public class AsyncTranscriptSink implements TranscriptSink {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTranscriptSink.class);
+
+    private final TranscriptWriter writer;
+    private final int capacity;
+    private final int maxBatch;
+    private final long flushIntervalNanos;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread writerThread;
+    private volatile boolean waiting = false;
+    private volatile boolean closed = false;
+
+    // metrics
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private volatile long batchCount = 0;
+    private volatile long flushLatencyNanosTotal = 0;
+    private volatile long maxFlushLatencyNanos = 0;
+
+    /**
+     * @param capacity        queued events before partial events are dropped
+     * @param maxBatch        events written between two flushes
+     * @param flushIntervalMs longest time the writer thread sleeps when idle
+     */
+    public AsyncTranscriptSink(TranscriptWriter writer, int capacity, int maxBatch, long flushIntervalMs) {
+        this.writer = writer;
+        this.capacity = Math.max(1, capacity);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+
+        this.writerThread = new Thread(this::writeLoop, "transcript-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void accept(TranscriptEvent event) {
+        if (closed) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (size.incrementAndGet() > capacity && event.isDroppable()) {
+            size.decrementAndGet();
+            droppedCount.incrementAndGet();
+            return;
+        }
+
+        queue.offer(new Entry(event, System.nanoTime()));
+        if (waiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void writeLoop() {
+        List<TranscriptEvent> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            long oldest = 0;
+            Entry entry;
+            while (batch.size() < maxBatch && (entry = queue.poll()) != null) {
+                size.decrementAndGet();
+                if (batch.isEmpty()) {
+                    oldest = entry.enqueuedAt;
+                }
+                batch.add(entry.event);
+            }
+
+            if (batch.isEmpty()) {
+                if (closed) {
+                    break;
+                }
+                waiting = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+                waiting = false;
+                continue;
+            }
+
+            try {
+                writer.write(batch);
+                writer.flush();
+                writtenCount.addAndGet(batch.size());
+            } catch (IOException | RuntimeException e) {
+                errorCount.incrementAndGet();
+                logger.error("transcript write failed events={} : {}", batch.size(), e.getMessage());
+            }
+            recordFlush(System.nanoTime() - oldest);
+            batch.clear();
+        }
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.error("transcript writer close failed : {}", e.getMessage());
+        }
+    }
+
+    // writer thread 에서만 갱신
+    private void recordFlush(long latencyNanos) {
+        batchCount++;
+        flushLatencyNanosTotal += latencyNanos;
+        if (latencyNanos > maxFlushLatencyNanos) {
+            maxFlushLatencyNanos = latencyNanos;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("transcript sink closed {}", getStats());
+    }
+
+    // metrics
+
+    public int getQueueDepth() {
+        return Math.max(0, size.get());
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getMaxFlushLatencyMs() {
+        return TimeUnit.NANOSECONDS.toMillis(maxFlushLatencyNanos);
+    }
+
+    public double getAvgFlushLatencyMs() {
+        long batches = batchCount;
+        return batches == 0 ? 0 : flushLatencyNanosTotal / (double) batches / 1_000_000.0;
+    }
+
+    public String getStats() {
+        return String.format("depth=%d written=%d dropped=%d errors=%d batches=%d avgFlushMs=%.2f maxFlushMs=%d",
+                getQueueDepth(), getWrittenCount(), getDroppedCount(), getErrorCount(), batchCount, getAvgFlushLatencyMs(), getMaxFlushLatencyMs());
+    }
+
+    private static class Entry {
+        private final TranscriptEvent event;
+        private final long enqueuedAt;
+
+        private Entry(TranscriptEvent event, long enqueuedAt) {
+            this.event = event;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package net.samsung.examples.sink;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hands every event to a callback on the writer thread.
+ */
+public class CallbackTranscriptWriter implements TranscriptWriter {
+
+    private final Consumer<TranscriptEvent> callback;
+
+    public CallbackTranscriptWriter(Consumer<TranscriptEvent> callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public void write(List<TranscriptEvent> batch) {
+        for (TranscriptEvent event : batch) {
+            callback.accept(event);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package net.samsung.examples.sink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thins out partial events before they reach the downstream sink, per source connector and channel.
+ * A partial equal to the last one passed is suppressed, and partials are passed at most once per
+ * {@code partialIntervalMs}; the latest one waiting is sent when the interval ends. Final events pass at once
+ * and discard the waiting partial. With {@code deltas} partials are sent as {@link TranscriptEvent.Type#DELTA}
+ * events holding only the changed tail.
+ */
+public class CoalescingTranscriptSink implements TranscriptSink {
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingTranscriptSink.class);
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "transcript-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TranscriptSink downstream;
+    private final long intervalNanos;
+    private final boolean deltas;
+    // key 는 source 와 channel
+    private final Map<Long, ChannelState> channels = new ConcurrentHashMap<>();
+
+    // metrics
+    private final AtomicLong unchangedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private static class ChannelState {
+        String lastText = "";
+        int lastSpeaker = -1;
+        long lastEmitNanos = 0;
+        TranscriptEvent pending = null;
+        boolean scheduled = false;
+    }
+
+    /**
+     * @param partialIntervalMs shortest time between two partials of a channel, 0 passes every changed partial
+     */
+    public CoalescingTranscriptSink(TranscriptSink downstream, long partialIntervalMs, boolean deltas) {
+        this.downstream = downstream;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, partialIntervalMs));
+        this.deltas = deltas;
+    }
+
+    @Override
+    public void accept(TranscriptEvent event) {
+        long key = (long) event.getSource() << 32 | (event.getChannel() & 0xffffffffL);
+        ChannelState state = channels.computeIfAbsent(key, k -> new ChannelState());
+
+        // channel 별 순서를 지키도록 downstream 전달까지 state lock 안에서
+        synchronized (state) {
+            if (event.getType() != TranscriptEvent.Type.PARTIAL) {
+                if (state.pending != null) {
+                    state.pending = null;
+                    coalescedCount.incrementAndGet();
+                }
+                if (event.isFinal()) {
+                    state.lastText = "";
+                    state.lastSpeaker = -1;
+                }
+                downstream.accept(event);
+                return;
+            }
+
+            String text = event.getText() + event.getNonFinalText();
+            if (text.equals(state.lastText) && event.getSpeaker() == state.lastSpeaker) {
+                // 기다리던 partial 이 있었다면 다시 원래대로 돌아온 것이므로 보낼 필요 없음
+                if (state.pending != null) {
+                    state.pending = null;
+                    coalescedCount.incrementAndGet();
+                }
+                unchangedCount.incrementAndGet();
+                return;
+            }
+
+            long now = System.nanoTime();
+            long waitNanos = state.lastEmitNanos + intervalNanos - now;
+            if (intervalNanos == 0 || waitNanos <= 0) {
+                emit(state, event, text, now);
+                return;
+            }
+
+            if (state.pending != null) {
+                coalescedCount.incrementAndGet();
+            }
+            state.pending = event;
+            if (!state.scheduled) {
+                state.scheduled = true;
+                timer.schedule(() -> flush(state), waitNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    public long getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Sends the waiting partials and closes the downstream sink.
+     */
+    @Override
+    public void close() {
+        for (ChannelState state : channels.values()) {
+            flush(state);
+        }
+        logger.debug("coalescing sink closed unchanged={} coalesced={}", unchangedCount.get(), coalescedCount.get());
+        downstream.close();
+    }
+
+    private void flush(ChannelState state) {
+        synchronized (state) {
+            state.scheduled = false;
+            TranscriptEvent event = state.pending;
+            if (event != null) {
+                emit(state, event, event.getText() + event.getNonFinalText(), System.nanoTime());
+            }
+        }
+    }
+
+    private void emit(ChannelState state, TranscriptEvent event, String text, long now) {
+        if (deltas) {
+            int keep = commonPrefix(state.lastText, text);
+            downstream.accept(TranscriptEvent.delta(event, keep, text.substring(keep)));
+        } else {
+            downstream.accept(event);
+        }
+        state.lastText = text;
+        state.lastSpeaker = event.getSpeaker();
+        state.lastEmitNanos = now;
+        state.pending = null;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        // surrogate pair 가운데서 자르지 않는다
+        if (i > 0 && i < b.length() && Character.isHighSurrogate(b.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,53 @@
+package net.samsung.examples.sink;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends one JSON object per event to a file.
+ */
+public class JsonlTranscriptWriter implements TranscriptWriter {
+
+    private final Writer out;
+    private final boolean finalOnly;
+
+    /**
+     * @param finalOnly skip partial events
+     */
+    public JsonlTranscriptWriter(String fileName, boolean finalOnly) throws IOException {
+        Path path = Paths.get(fileName);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        this.finalOnly = finalOnly;
+    }
+
+    @Override
+    public void write(List<TranscriptEvent> batch) throws IOException {
+        for (TranscriptEvent event : batch) {
+            if (finalOnly && !event.isFinal()) {
+                continue;
+            }
+            out.write(event.toJson());
+            out.write('\n');
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
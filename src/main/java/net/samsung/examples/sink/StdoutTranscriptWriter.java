@@ -0,0 +1,31 @@
+package net.samsung.examples.sink;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes one line per event to stdout.
+ */
+public class StdoutTranscriptWriter implements TranscriptWriter {
+
+    private final Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 64 * 1024);
+
+    @Override
+    public void write(List<TranscriptEvent> batch) throws IOException {
+        for (TranscriptEvent event : batch) {
+            out.write(event.toLine());
+            out.write(System.lineSeparator());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
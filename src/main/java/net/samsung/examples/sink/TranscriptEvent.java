@@ -0,0 +1,111 @@
+package net.samsung.examples.sink;
+
+import lombok.Value;
+import org.json.JSONObject;
+
+/**
+ * One transcript line: a finished sentence or the sentence in progress with its non-final tail.
+ * A delta carries only the change of the sentence in progress: the first {@code keepChars} of the previous
+ * partial (final text followed by non-final text) stay and {@code text} replaces the rest.
+ * {@link #toLine()} prints the channel and speaker only when they are labeled, by default the speaker only.
+ * {@code source} tells apart the connectors sharing one sink, 0 when not set.
+ */
+@Value
+public class TranscriptEvent {
+
+    public enum Type {
+        PARTIAL,
+        FINAL,
+        DELTA
+    }
+
+    Type type;
+    int channel;
+    int speaker;
+    String text;
+    String nonFinalText;
+    int startMs;
+    int endMs;
+    long timestamp;
+    int keepChars;
+    boolean channelLabeled;
+    boolean speakerLabeled;
+    int source;
+
+    public static TranscriptEvent finalSentence(int channel, int speaker, String text, int startMs, int endMs) {
+        return new TranscriptEvent(Type.FINAL, channel, speaker, text, "", startMs, endMs, System.currentTimeMillis(), -1, false, true, 0);
+    }
+
+    /**
+     * @param finalText final words of the open sentence
+     */
+    public static TranscriptEvent partial(int channel, int speaker, String finalText, String nonFinalText) {
+        return new TranscriptEvent(Type.PARTIAL, channel, speaker, finalText, nonFinalText, -1, -1, System.currentTimeMillis(), -1, false, true, 0);
+    }
+
+    /**
+     * Delta replacing a partial, with its channel, speaker, timestamp and labels.
+     *
+     * @param keepChars characters of the previous partial that are kept
+     * @param text      replaces the rest of the previous partial
+     */
+    public static TranscriptEvent delta(TranscriptEvent partial, int keepChars, String text) {
+        return new TranscriptEvent(Type.DELTA, partial.channel, partial.speaker, text, "", -1, -1, partial.timestamp, keepChars,
+                partial.channelLabeled, partial.speakerLabeled, partial.source);
+    }
+
+    /**
+     * Copy from the given source, printing the channel only for multichannel audio and the speaker only with speaker diarization.
+     */
+    public TranscriptEvent withSource(int source, boolean channelLabeled, boolean speakerLabeled) {
+        return new TranscriptEvent(type, channel, speaker, text, nonFinalText, startMs, endMs, timestamp, keepChars, channelLabeled, speakerLabeled, source);
+    }
+
+    public boolean isFinal() {
+        return type == Type.FINAL;
+    }
+
+    /**
+     * Partials may be dropped since the next one replaces them; finals and deltas may not.
+     */
+    public boolean isDroppable() {
+        return type == Type.PARTIAL;
+    }
+
+    public String toLine() {
+        StringBuilder line = new StringBuilder(32 + text.length() + nonFinalText.length());
+        if (channelLabeled) {
+            line.append("channel=").append(channel).append(' ');
+        }
+        if (speakerLabeled) {
+            line.append("speaker=").append(speaker).append(' ');
+        }
+        if (isFinal()) {
+            line.append("final=1 speech=").append(text);
+        } else if (type == Type.DELTA) {
+            line.append("delta keep=").append(keepChars).append(" speech=").append(text);
+        } else {
+            line.append("final=").append(nonFinalText.isEmpty() ? '1' : '0')
+                    .append(" speech=").append(text).append('/').append(nonFinalText);
+        }
+        return line.toString();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(96 + text.length() + nonFinalText.length());
+        json.append("{\"type\":\"").append(type.name().toLowerCase())
+                .append("\",\"channel\":").append(channel)
+                .append(",\"speaker\":").append(speaker)
+                .append(",\"text\":").append(JSONObject.quote(text));
+        if (type == Type.DELTA) {
+            json.append(",\"keepChars\":").append(keepChars);
+        } else if (!isFinal()) {
+            json.append(",\"nonFinalText\":").append(JSONObject.quote(nonFinalText));
+        } else {
+            json.append(",\"startMs\":").append(startMs)
+                    .append(",\"endMs\":").append(endMs);
+        }
+        json.append(",\"timestamp\":").append(timestamp).append('}');
+        return json.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package net.samsung.examples.sink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes transcript events to {@link Flow.Subscriber}s, each with a buffer of {@code bufferCapacity} events.
+ * {@link #accept} hands events to the publisher's own thread through a queue of the same capacity, so a slow
+ * subscriber fills first its buffer and then the queue, and never the heap. Partial events are dropped when
+ * either is full. Final and delta events wait for queue space up to {@code finalWaitMs}, which holds back the
+ * connector callback for at most that long; after that they are dropped and counted in {@link #getDroppedFinalCount()}.
+ * One publisher can be the sink of several connectors.
+ */
+public class TranscriptPublisher implements TranscriptSink, Flow.Publisher<TranscriptEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptPublisher.class);
+
+    public static final long DEFAULT_FINAL_WAIT_MS = 1000;
+
+    // publisher thread 를 끝내는 표시
+    private static final TranscriptEvent END = TranscriptEvent.partial(-1, -1, "", "");
+
+    private final SubmissionPublisher<TranscriptEvent> publisher;
+    private final BlockingQueue<TranscriptEvent> handoff;
+    private final long finalWaitMs;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong droppedFinalCount = new AtomicLong();
+    private volatile boolean closed = false;
+
+    public TranscriptPublisher(int bufferCapacity) {
+        this(ForkJoinPool.commonPool(), bufferCapacity, DEFAULT_FINAL_WAIT_MS);
+    }
+
+    /**
+     * @param executor    runs the delivery to subscribers
+     * @param finalWaitMs how long a final or delta event waits for queue space before it is dropped
+     */
+    public TranscriptPublisher(Executor executor, int bufferCapacity, long finalWaitMs) {
+        this.publisher = new SubmissionPublisher<>(executor, Math.max(1, bufferCapacity));
+        this.handoff = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+        this.finalWaitMs = Math.max(0, finalWaitMs);
+
+        Thread thread = new Thread(this::run, "transcript-publisher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super TranscriptEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void accept(TranscriptEvent event) {
+        if (closed) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (event.isDroppable()) {
+            if (!handoff.offer(event)) {
+                droppedCount.incrementAndGet();
+            }
+            return;
+        }
+
+        boolean queued;
+        try {
+            queued = handoff.offer(event, finalWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            droppedCount.incrementAndGet();
+            droppedFinalCount.incrementAndGet();
+            logger.warn("transcript subscriber is too slow, {} event dropped", event.getType());
+        }
+    }
+
+    // queue 의 event 를 순서대로 subscriber 에게 넘긴다. final 은 subscriber buffer 에 자리가 날 때까지 기다린다
+    private void run() {
+        try {
+            while (true) {
+                TranscriptEvent event = handoff.take();
+                if (event == END) {
+                    break;
+                }
+                if (!event.isDroppable()) {
+                    publisher.submit(event);
+                } else {
+                    publisher.offer(event, (subscriber, dropped) -> {
+                        droppedCount.incrementAndGet();
+                        return false;
+                    });
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publisher.close();
+        logger.debug("transcript publisher closed dropped={} droppedFinal={}", droppedCount.get(), droppedFinalCount.get());
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Final and delta events dropped after waiting {@code finalWaitMs} for queue space, also counted in {@link #getDroppedCount()}.
+     */
+    public long getDroppedFinalCount() {
+        return droppedFinalCount.get();
+    }
+
+    public int getSubscriberCount() {
+        return publisher.getNumberOfSubscribers();
+    }
+
+    /**
+     * Completes the subscribers once they have received the queued events. Waits while the queue is full.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            handoff.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            publisher.close();
+        }
+    }
+}
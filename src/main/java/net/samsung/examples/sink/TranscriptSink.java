@@ -0,0 +1,17 @@
+package net.samsung.examples.sink;
+
+import java.io.Closeable;
+
+/**
+ * Destination of transcript events. {@link #accept} is called on gRPC/WebSocket callback threads and must not block.
+ */
+public interface TranscriptSink extends Closeable {
+
+    void accept(TranscriptEvent event);
+
+    /**
+     * Writes pending events and releases the destination.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,41 @@
+package net.samsung.examples.sink;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Factory of the built-in sinks.
+ */
+public final class TranscriptSinks {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH = 256;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 50;
+
+    private TranscriptSinks() {
+    }
+
+    public static AsyncTranscriptSink stdout() {
+        return new AsyncTranscriptSink(new StdoutTranscriptWriter(), DEFAULT_CAPACITY, DEFAULT_BATCH, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    public static AsyncTranscriptSink jsonl(String fileName, boolean finalOnly) throws IOException {
+        return new AsyncTranscriptSink(new JsonlTranscriptWriter(fileName, finalOnly), DEFAULT_CAPACITY, DEFAULT_BATCH, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    public static AsyncTranscriptSink callback(Consumer<TranscriptEvent> callback) {
+        return new AsyncTranscriptSink(new CallbackTranscriptWriter(callback), DEFAULT_CAPACITY, DEFAULT_BATCH, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * @param type stdout | jsonl
+     */
+    public static AsyncTranscriptSink create(String type, String fileName, boolean finalOnly, int capacity, int maxBatch, long flushIntervalMs) throws IOException {
+        if (type == null || type.isEmpty() || type.equals("stdout")) {
+            return new AsyncTranscriptSink(new StdoutTranscriptWriter(), capacity, maxBatch, flushIntervalMs);
+        } else if (type.equals("jsonl")) {
+            return new AsyncTranscriptSink(new JsonlTranscriptWriter(fileName, finalOnly), capacity, maxBatch, flushIntervalMs);
+        }
+        throw new IllegalArgumentException("unknown transcript sink : " + type);
+    }
+}
@@ -0,0 +1,20 @@
+package net.samsung.examples.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Blocking destination driven by {@link AsyncTranscriptSink} on its writer thread.
+ */
+public interface TranscriptWriter extends Closeable {
+
+    void write(List<TranscriptEvent> batch) throws IOException;
+
+    default void flush() throws IOException {
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}